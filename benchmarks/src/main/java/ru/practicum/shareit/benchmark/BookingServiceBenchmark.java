@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.util.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы {@code BookingServiceImpl} через транзакционный прокси, как их вызывает контроллер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private final List<Long> createdBookingIds = new ArrayList<>();
+    private int nextItem;
+    private int nextBooking;
+
+    @Benchmark
+    public BookingDto getBooking(ServerState server) {
+        Long bookingId = server.bookingIds.get(nextBooking++ % server.bookingIds.size());
+        return server.bookingService.getBooking(server.bookerId, bookingId);
+    }
+
+    @Benchmark
+    public String getBookingEtag(ServerState server) {
+        Long bookingId = server.bookingIds.get(nextBooking++ % server.bookingIds.size());
+        return server.bookingService.getBookingEtag(server.bookerId, bookingId);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> getAllBookings(ServerState server) {
+        return server.bookingService.getAllBookings(server.bookerId, BookingState.ALL, 0, 10);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> getAllBookingsByOwner(ServerState server) {
+        return server.bookingService.getAllBookingsByOwner(server.ownerId, BookingState.FUTURE, 0, 10);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDto> getAllBookingsAfter(ServerState server) {
+        return server.bookingService.getAllBookingsAfter(server.bookerId, BookingState.ALL, "", 10);
+    }
+
+    @Benchmark
+    public BookingDto createBooking(ServerState server) {
+        Long itemId = server.itemIds.get(nextItem++ % server.itemIds.size());
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        BookingDto booking = server.bookingService.createBooking(server.bookerId,
+                ServerState.makeBookingDto(itemId, start, start.plusDays(1)));
+        createdBookingIds.add(booking.getId());
+        return booking;
+    }
+
+    // Созданные бронирования удаляются, чтобы выборки следующих итераций шли по тем же данным
+    @TearDown(Level.Iteration)
+    public void deleteCreatedBookings(ServerState server) {
+        if (!createdBookingIds.isEmpty()) {
+            server.bookingRepository.deleteAllByIdInBatch(createdBookingIds);
+            createdBookingIds.clear();
+        }
+    }
+}
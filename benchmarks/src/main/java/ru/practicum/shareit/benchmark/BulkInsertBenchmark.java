@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.util.BatchResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовая загрузка бронирований: по одному запросу на бронирование против одного пакетного запроса.
+ * Одна операция — загрузка {@link #size} бронирований.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"100"})
+    private int size;
+
+    private final List<BookingDto> bookingDtos = new ArrayList<>();
+    private final List<Long> createdBookingIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(ServerState server) {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        for (int i = 0; i < size; i++) {
+            Long itemId = server.itemIds.get(i % server.itemIds.size());
+            bookingDtos.add(ServerState.makeBookingDto(itemId, start.plusDays(i), start.plusDays(i + 1)));
+        }
+    }
+
+    @Benchmark
+    public List<Long> createBookingsOneByOne(ServerState server) {
+        for (BookingDto bookingDto : bookingDtos) {
+            createdBookingIds.add(server.bookingService.createBooking(server.bookerId, bookingDto).getId());
+        }
+        return createdBookingIds;
+    }
+
+    @Benchmark
+    public List<Long> createBookingsInBatch(ServerState server) {
+        for (BatchResult<BookingDto> result : server.bookingService.createBookings(server.bookerId, bookingDtos)) {
+            createdBookingIds.add(result.getValue().getId());
+        }
+        return createdBookingIds;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreatedBookings(ServerState server) {
+        if (!createdBookingIds.isEmpty()) {
+            server.bookingRepository.deleteAllByIdInBatch(createdBookingIds);
+            createdBookingIds.clear();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы {@code ItemServiceImpl} через транзакционный прокси: карточка вещи владельца с бронированиями
+ * и комментариями, список вещей владельца и поиск.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    private int nextItem;
+
+    @Benchmark
+    public ItemExtendedDto getItemById(ServerState server) {
+        Long itemId = server.itemIds.get(nextItem++ % server.itemIds.size());
+        return server.itemService.getItemById(server.ownerId, itemId);
+    }
+
+    @Benchmark
+    public String getItemEtag(ServerState server) {
+        Long itemId = server.itemIds.get(nextItem++ % server.itemIds.size());
+        return server.itemService.getItemEtag(server.ownerId, itemId);
+    }
+
+    @Benchmark
+    public Collection<ItemExtendedDto> getItems(ServerState server) {
+        return server.itemService.getItems(server.ownerId, 0, 10);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> searchItem(ServerState server) {
+        return server.itemService.searchItem("дрель", 0, 10);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей в DTO на горячих путях выдачи: одиночные и для страницы из {@link #PAGE_SIZE} записей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private Booking booking;
+    private List<Booking> bookings;
+    private Item item;
+    private List<Item> items;
+    private Comment comment;
+    private ItemRequest itemRequest;
+    private List<ItemRequest> itemRequests;
+
+    @Setup
+    public void setUp() {
+        User owner = makeUser(1L, "ivan@email", "Ivan");
+        User booker = makeUser(2L, "petr@email", "Petr");
+
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        itemRequests = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            Item pageItem = new Item();
+            pageItem.setId(i);
+            pageItem.setName("Дрель " + i);
+            pageItem.setDescription("Дрель ударная, аккумуляторная");
+            pageItem.setIsAvailable(true);
+            pageItem.setOwnerId(owner.getId());
+            items.add(pageItem);
+
+            Booking pageBooking = new Booking();
+            pageBooking.setId(i);
+            pageBooking.setItem(pageItem);
+            pageBooking.setBooker(booker);
+            pageBooking.setStartDate(start.plusDays(i));
+            pageBooking.setEndDate(start.plusDays(i + 1));
+            pageBooking.setStatus(BookingStatus.APPROVED);
+            bookings.add(pageBooking);
+
+            ItemRequest pageRequest = new ItemRequest();
+            pageRequest.setId(i);
+            pageRequest.setDescription("Нужна дрель на выходные");
+            pageRequest.setRequestor(booker);
+            itemRequests.add(pageRequest);
+        }
+        item = items.get(0);
+        booking = bookings.get(0);
+        itemRequest = itemRequests.get(0);
+
+        comment = new Comment();
+        comment.setId(1L);
+        comment.setText("Отличная дрель");
+        comment.setItem(item);
+        comment.setAuthor(booker);
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingPageToBookingDto() {
+        return BookingMapper.toBookingDto(bookings);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemPageToItemDto() {
+        return ItemMapper.toItemDto(items);
+    }
+
+    @Benchmark
+    public ItemExtendedDto itemToItemOwnerDto() {
+        return ItemMapper.toItemOwnerDto(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToItemRequestDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequest);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> itemRequestPageToItemRequestDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequests);
+    }
+
+    private User makeUser(Long id, String email, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+}
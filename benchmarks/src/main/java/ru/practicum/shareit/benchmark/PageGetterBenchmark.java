@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.util.PageGetter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение {@link Pageable} для каждого постраничного запроса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageGetterBenchmark {
+
+    @Param({"0", "25"})
+    private int from;
+
+    @Param({"10"})
+    private int size;
+
+    private final Sort sort = Sort.by("endDate").descending();
+
+    @Benchmark
+    public Pageable getPageRequest() {
+        return PageGetter.getPageRequest(from, size, sort);
+    }
+
+    @Benchmark
+    public Pageable getPageRequestWithNewSort() {
+        // Так вызывают сервисы: Sort собирается заново на каждый запрос
+        return PageGetter.getPageRequest(from, size, Sort.by("endDate").descending());
+    }
+
+    @Benchmark
+    public Pageable getCursorPageRequest() {
+        return PageGetter.getCursorPageRequest(size, sort);
+    }
+}
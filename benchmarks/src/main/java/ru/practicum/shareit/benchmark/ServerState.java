@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Контекст сервера без веб-слоя со встроенной H2 (профиль test) и наполненной базой: у владельца {@link #ITEMS} вещей,
+ * у каждой — завершённое и будущее согласованные бронирования, ожидающее бронирование и комментарий.
+ */
+@State(Scope.Benchmark)
+public class ServerState {
+
+    public static final int ITEMS = 100;
+
+    ConfigurableApplicationContext context;
+    UserService userService;
+    ItemService itemService;
+    BookingService bookingService;
+    ItemRepository itemRepository;
+    BookingRepository bookingRepository;
+
+    Long ownerId;
+    Long bookerId;
+    final List<Long> itemIds = new ArrayList<>();
+    final List<Long> bookingIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        ownerId = userService.createUser(makeUserDto("ivan@email", "Ivan")).getId();
+        bookerId = userService.createUser(makeUserDto("petr@email", "Petr")).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                    .name((i % 2 == 0 ? "Дрель " : "Отвёртка ") + i)
+                    .description("Инструмент для ремонта")
+                    .available(true)
+                    .build()).getId();
+            itemIds.add(itemId);
+
+            Long pastBookingId = createBooking(itemId, now.minusDays(10), now.minusDays(5));
+            bookingService.approveBooking(ownerId, pastBookingId, true);
+            Long nextBookingId = createBooking(itemId, now.plusDays(5), now.plusDays(10));
+            bookingService.approveBooking(ownerId, nextBookingId, true);
+            bookingIds.add(createBooking(itemId, now.plusDays(20), now.plusDays(25)));
+
+            itemService.addComment(bookerId, itemId, CommentDto.builder().text("Всё работает").build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    Long createBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(bookerId, makeBookingDto(itemId, start, end)).getId();
+    }
+
+    static BookingDto makeBookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .itemId(itemId)
+                .start(start.toString())
+                .end(end.toString())
+                .build();
+    }
+
+    private UserDto makeUserDto(String email, String name) {
+        return UserDto.builder()
+                .email(email)
+                .name(name)
+                .build();
+    }
+}
@@ -2,15 +2,16 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,16 +19,24 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getBookings(long userId, BookingState state, Integer from, Integer size, String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "after", after,
+                    "size", size
+            );
+            return get("?state={state}&after={after}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -37,20 +46,37 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> createBooking(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> createBooking(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<byte[]>> createBookings(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+    public Mono<ResponseEntity<byte[]>> getBooking(long userId, Long bookingId, String ifNoneMatch) {
+        return getConditional("/{bookingId}", userId, Map.of("bookingId", bookingId), ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> approveBooking(long userId, Long bookingId, Boolean approved) {
+        return patch("/{bookingId}?approved={approved}", userId, Map.of("bookingId", bookingId, "approved", approved), null);
+    }
+
+    public Mono<ResponseEntity<byte[]>> approveBookings(long userId, List<BookingApprovalRequestDto> requestDtos) {
+        return patch("/approve", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAllBookingsByOwner(long userId, BookingState state, Integer from, Integer size,
+                                                              String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "after", after,
+                    "size", size
+            );
+            return get("/owner?state={state}&after={after}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -3,32 +3,43 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.exception.BookingValidationException;
 import ru.practicum.shareit.booking.exception.BookingWrongStatusException;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    // Ограничивает длину транзакции и объём ответа одного пакетного запроса
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
+    private final Validator validator;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestBody @Valid BookItemRequestDto requestDto,
-                                                BindingResult bindingResult) {
+    public Mono<ResponseEntity<byte[]>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody @Valid BookItemRequestDto requestDto,
+                                                      BindingResult bindingResult) {
         generateCustomValidateException(requestDto, bindingResult);
         checkBookingDates(requestDto);
         log.info("Создать бронирование на вещь ID = {} для пользователя ID = {}", requestDto.getItemId(), userId);
@@ -36,38 +47,64 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
-                                                 @RequestParam(name = "approved") Boolean approved) {
+    public Mono<ResponseEntity<byte[]>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
+                                                       @RequestParam(name = "approved") Boolean approved) {
         log.info("Подтвердить бронирование ID = {} пользователем ID = {}", bookingId, userId);
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookItemRequestDto> requestDtos) {
+        checkBatchSize(requestDtos);
+        for (int i = 0; i < requestDtos.size(); i++) {
+            validateBatchEntry(i, requestDtos.get(i));
+            checkBookingDates(requestDtos.get(i));
+        }
+        log.info("Создать пакет из {} бронирований для пользователя ID = {}", requestDtos.size(), userId);
+        return bookingClient.createBookings(userId, requestDtos);
+    }
+
+    @PatchMapping("/approve")
+    public Mono<ResponseEntity<byte[]>> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestBody List<BookingApprovalRequestDto> requestDtos) {
+        checkBatchSize(requestDtos);
+        for (int i = 0; i < requestDtos.size(); i++) {
+            validateBatchEntry(i, requestDtos.get(i));
+        }
+        log.info("Подтвердить пакет из {} бронирований пользователем ID = {}", requestDtos.size(), userId);
+        return bookingClient.approveBookings(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
+                                                   @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получить бронирование ID = {} пользователем ID = {}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "after", required = false) String after) {
         log.info("Получить бронирования пользователя ID = {} в состоянии {}", userId, stateParam);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingWrongStatusException("Unknown state: " + stateParam));
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(name = "after", required = false) String after) {
         log.info("Получить бронирования владельца ID = {} в состоянии {}", userId, stateParam);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingWrongStatusException("Unknown state: " + stateParam));
-        return bookingClient.getAllBookingsByOwner(userId, state, from, size);
+        return bookingClient.getAllBookingsByOwner(userId, state, from, size, after);
     }
 
     private void generateCustomValidateException(BookItemRequestDto requestDto, BindingResult bindingResult) {
@@ -79,6 +116,27 @@ public class BookingController {
         }
     }
 
+    private void checkBatchSize(List<?> requestDtos) {
+        if (requestDtos.isEmpty() || requestDtos.size() > MAX_BATCH_SIZE) {
+            throw new BookingValidationException("В пакете должно быть от 1 до " + MAX_BATCH_SIZE + " записей");
+        }
+    }
+
+    //Пакет отклоняется целиком, если хотя бы одна запись заполнена некорректно
+    private void validateBatchEntry(int index, Object requestDto) {
+        if (requestDto == null) {
+            throw new BookingValidationException("Запись " + index + " пакета не заполнена");
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Object> violation = violations.iterator().next();
+            log.warn("Ошибка в заполнении поля {} - {}. Запись {} пакета - {}", violation.getPropertyPath(),
+                    violation.getMessage(), index, requestDto);
+            throw new BookingValidationException("Ошибка в заполнении поля " + violation.getPropertyPath() + " - " +
+                    violation.getMessage() + " в записи " + index + " пакета");
+        }
+    }
+
     private void checkBookingDates(BookItemRequestDto requestDto) {
         //Проверяема конечная дата бронирования
         LocalDateTime start = requestDto.getStart();
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.config.ResponseCacheProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Кэш ответов сервера на GET-запросы, которые только читают данные.
+ * <p>
+ * Ответ отдаётся из кэша без обращения к серверу, пока он свежий (Cache-Control: max-age от сервера).
+ * Затем шлюз перепроверяет его запросом с If-None-Match: на 304 клиент получает сохранённое тело.
+ * <p>
+ * Каждый ответ помечен метками данных, из которых он собран (например, items/5). Изменяющие ответы
+ * сервера перечисляют затронутые метки в заголовке {@link #INVALIDATE_HEADER}; ответы с этими метками,
+ * полученные раньше, больше не используются. Другие экземпляры шлюза этот заголовок не видят —
+ * для них согласованность обеспечивает перепроверка по ETag.
+ * <p>
+ * Метрики: gateway.response.cache.requests{result=hit|revalidated|miss} и gateway.response.cache.size.
+ */
+@Slf4j
+public class GatewayResponseCache {
+    public static final String INVALIDATE_HEADER = "X-Cache-Invalidate";
+    private static final String ALL = "*";
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final boolean enabled;
+    private final Cache<String, CachedResponse> responses;
+    // Метка -> номер последнего сброса. Запись живёт не меньше ответов, которые она может сбросить
+    private final Cache<String, Long> invalidations;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    public GatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTimeToLive())
+                .build();
+
+        Gauge.builder("gateway.response.cache.size", responses, Cache::estimatedSize)
+                .register(meterRegistry);
+        hits = requestsCounter(meterRegistry, "hit");
+        revalidations = requestsCounter(meterRegistry, "revalidated");
+        misses = requestsCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Возвращает ответ из кэша или получает его через {@code exchange}. Аргумент {@code exchange} —
+     * ETag сохранённого ответа для If-None-Match или null, если перепроверять нечего.
+     */
+    public Mono<ResponseEntity<byte[]>> get(String key, Collection<String> tags,
+                                            Function<String, Mono<ResponseEntity<byte[]>>> exchange) {
+        if (!enabled) {
+            return exchange.apply(null);
+        }
+
+        // Номер берётся до запроса: сброс, пришедший во время запроса, сделает ответ устаревшим
+        long requestSequence = sequence.get();
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && isInvalidated(cached)) {
+            responses.invalidate(key);
+            cached = null;
+        }
+
+        if (cached != null && System.nanoTime() < cached.freshUntil) {
+            hits.increment();
+            return Mono.just(cached.toResponseEntity());
+        }
+
+        CachedResponse stale = cached;
+        return exchange.apply(stale != null ? stale.etag : null)
+                .map(response -> {
+                    if (stale != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        revalidations.increment();
+                        CachedResponse revalidated = stale.revalidate(requestSequence, freshUntil(response.getHeaders()));
+                        responses.put(key, revalidated);
+                        return revalidated.toResponseEntity();
+                    }
+
+                    misses.increment();
+                    if (isCacheable(response)) {
+                        responses.put(key, new CachedResponse(response.getStatusCode(), response.getHeaders(),
+                                response.getBody(), response.getHeaders().getETag(), List.copyOf(tags),
+                                requestSequence, freshUntil(response.getHeaders())));
+                    } else {
+                        responses.invalidate(key);
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Фильтр для всех WebClient шлюза: применяет сбросы из ответов сервера на изменяющие запросы.
+     */
+    public ExchangeFilterFunction invalidationFilter() {
+        return ExchangeFilterFunction.ofResponseProcessor(response -> {
+            List<String> headerValues = response.headers().header(INVALIDATE_HEADER);
+            if (!headerValues.isEmpty()) {
+                invalidate(parseTags(headerValues));
+            }
+            return Mono.just(response);
+        });
+    }
+
+    public void invalidate(Collection<String> tags) {
+        if (!enabled) {
+            return;
+        }
+
+        long invalidationSequence = sequence.incrementAndGet();
+        for (String tag : tags) {
+            invalidations.put(tag, invalidationSequence);
+        }
+        if (tags.contains(ALL)) {
+            responses.invalidateAll();
+        }
+        log.debug("Сброшены ответы шлюза с метками {}", tags);
+    }
+
+    private boolean isInvalidated(CachedResponse cached) {
+        if (isInvalidatedAfter(ALL, cached.sequence)) {
+            return true;
+        }
+        for (String tag : cached.tags) {
+            if (isInvalidatedAfter(tag, cached.sequence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isInvalidatedAfter(String tag, long responseSequence) {
+        Long invalidationSequence = invalidations.getIfPresent(tag);
+        return invalidationSequence != null && invalidationSequence > responseSequence;
+    }
+
+    // Без ETag и без max-age сохранённый ответ никогда не пригодится
+    private static boolean isCacheable(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        return response.getStatusCode() == HttpStatus.OK
+                && (cacheControl == null || !cacheControl.contains("no-store"))
+                && (headers.getETag() != null || freshUntil(headers) > System.nanoTime());
+    }
+
+    private static long freshUntil(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return System.nanoTime() + Long.parseLong(matcher.group(1)) * 1_000_000_000L;
+            }
+        }
+        return System.nanoTime();
+    }
+
+    private static List<String> parseTags(List<String> headerValues) {
+        List<String> tags = new ArrayList<>();
+        for (String value : headerValues) {
+            for (String tag : value.split(",")) {
+                if (!tag.isBlank()) {
+                    tags.add(tag.trim());
+                }
+            }
+        }
+        return tags;
+    }
+
+    private static Counter requestsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @AllArgsConstructor
+    private static class CachedResponse {
+        private final HttpStatus status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        @Nullable
+        private final String etag;
+        private final List<String> tags;
+        private final long sequence;
+        private final long freshUntil;
+
+        private CachedResponse revalidate(long sequence, long freshUntil) {
+            return new CachedResponse(status, headers, body, etag, tags, sequence, freshUntil);
+        }
+
+        private ResponseEntity<byte[]> toResponseEntity() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.client.GatewayResponseCache;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    public GatewayResponseCache gatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new GatewayResponseCache(properties, meterRegistry);
+    }
+
+    /**
+     * Сброс кэша нужен на ответах всех клиентов: например, бронирование через BookingClient меняет
+     * карточку вещи, закэшированную ItemClient.
+     */
+    @Bean
+    public WebClientCustomizer responseCacheInvalidationCustomizer(GatewayResponseCache gatewayResponseCache) {
+        return builder -> builder.filter(gatewayResponseCache.invalidationFilter());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера в шлюзе (префикс shareit.response-cache).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    // Сколько ответ хранится в шлюзе; свежесть в пределах этого срока задаёт сервер через Cache-Control: max-age
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
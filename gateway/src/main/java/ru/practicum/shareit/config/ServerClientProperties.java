@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки пула соединений шлюза с сервером ShareIt (префикс shareit-server.client).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    // Все запросы шлюза идут на один адрес, поэтому лимит пула — это и лимит на маршрут
+    private int maxConnections = 200;
+    private int pendingAcquireMaxCount = 1000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictionInterval = Duration.ofSeconds(15);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    // HTTP11 — keep-alive соединения; H2C — HTTP/2 без TLS, требует server.http2.enabled=true на сервере
+    private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+}
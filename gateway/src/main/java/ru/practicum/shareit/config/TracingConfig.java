@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import brave.handler.SpanHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.tracing.LoggingSpanHandler;
+
+/**
+ * Трассировка запросов (Spring Cloud Sleuth). Sleuth создаёт спан входящего запроса и клиентский спан
+ * на каждый вызов сервера через WebClient, а контекст трассы передаётся серверу в заголовках
+ * traceparent / b3. Экспорт подключается бинами Brave {@link SpanHandler}: Zipkin (spring.zipkin.enabled)
+ * или лог (shareit.tracing.logging.enabled).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.logging.enabled", havingValue = "true")
+    public SpanHandler loggingSpanHandler() {
+        return new LoggingSpanHandler();
+    }
+}
@@ -2,12 +2,12 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
@@ -16,26 +16,36 @@ import java.util.Map;
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String ITEMS_TAG = "items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> createItem(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> patchItem(Long userId, long itemId, ItemRequestDto requestDto) {
-        return patch("/" + itemId, userId, requestDto);
+    public Mono<ResponseEntity<byte[]>> patchItem(Long userId, long itemId, ItemRequestDto requestDto) {
+        return patch("/{itemId}", userId, Map.of("itemId", itemId), requestDto);
     }
 
-    public ResponseEntity<Object> getItems(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getItems(long userId, Integer from, Integer size, String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "after", after,
+                    "size", size
+            );
+            return get("?after={after}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,20 +53,20 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<byte[]>> getItemById(long userId, long itemId, String ifNoneMatch) {
+        return getCached("/{itemId}", userId, Map.of("itemId", itemId), ifNoneMatch, ITEMS_TAG + "/" + itemId);
     }
 
-    public ResponseEntity<Object> searchItem(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> searchItem(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}", null, parameters, null, ITEMS_TAG);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, long itemId, CommentRequestDto requestDto) {
-        return post("/" + itemId + "/comment", userId, requestDto);
+    public Mono<ResponseEntity<byte[]>> addComment(Long userId, long itemId, CommentRequestDto requestDto) {
+        return post("/{itemId}/comment", userId, Map.of("itemId", itemId), requestDto);
     }
 }
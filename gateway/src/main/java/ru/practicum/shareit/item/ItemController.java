@@ -2,10 +2,12 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.error.CommentValidationException;
@@ -24,49 +26,51 @@ public class ItemController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestBody @Valid ItemRequestDto requestDto,
-                                             BindingResult bindingResult) {
+    public Mono<ResponseEntity<byte[]>> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody @Valid ItemRequestDto requestDto,
+                                                   BindingResult bindingResult) {
         log.info("Создать вещь для пользователя ID = {}", userId);
         generateItemValidateException(requestDto, bindingResult);
         return itemClient.createItem(userId, requestDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> patchItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestBody ItemRequestDto requestDto,
-                                            @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> patchItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestBody ItemRequestDto requestDto,
+                                                  @PathVariable long itemId) {
         log.info("Обновить вещь ID = {} пользователя ID = {}", itemId, userId);
         return itemClient.patchItem(userId, itemId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                 @RequestParam(name = "after", required = false) String after) {
         log.info("Вывести все вещи пользователя ID = {}", userId);
-        return itemClient.getItems(userId, from, size);
+        return itemClient.getItems(userId, from, size, after);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Вывести вещь ID = {}", itemId);
-        return itemClient.getItemById(userId, itemId);
+        return itemClient.getItemById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text,
-                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> searchItem(@RequestParam String text,
+                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Вывести вещи, содержащие в названии или описании текст {}", text);
         return itemClient.searchItem(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
-                                             @RequestBody @Valid CommentRequestDto requestDto,
-                                             BindingResult bindingResult) {
+    public Mono<ResponseEntity<byte[]>> addComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
+                                                   @RequestBody @Valid CommentRequestDto requestDto,
+                                                   BindingResult bindingResult) {
         log.info("Добавить комментарий к вещи ID = {}", itemId);
         generateCommentValidateException(requestDto, bindingResult);
         return itemClient.addComment(userId, itemId, requestDto);
@@ -2,12 +2,12 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.RequestItemRequestDto;
 
 import java.util.Map;
@@ -15,34 +15,46 @@ import java.util.Map;
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    // Запросы выводятся вместе с вещами, созданными в ответ на них
+    private static final String REQUESTS_TAG = "requests";
+    private static final String ITEMS_TAG = "items";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(long userId, RequestItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> createItemRequest(long userId, RequestItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getItemRequests(long userId) {
+    public Mono<ResponseEntity<byte[]>> getItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<byte[]>> getItemRequestById(long userId, Long requestId, String ifNoneMatch) {
+        return getConditional("/{requestId}", userId, Map.of("requestId", requestId), ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllItemRequests(long userId, Integer from, Integer size, String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "after", after,
+                    "size", size
+            );
+            return getCached("/all?after={after}&size={size}", userId, parameters, null, REQUESTS_TAG, ITEMS_TAG);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getCached("/all?from={from}&size={size}", userId, parameters, null, REQUESTS_TAG, ITEMS_TAG);
     }
 }
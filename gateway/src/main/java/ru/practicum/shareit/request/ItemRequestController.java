@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestItemRequestDto;
 import ru.practicum.shareit.request.exception.ItemRequestValidationException;
 
@@ -22,33 +24,35 @@ public class ItemRequestController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                    @RequestBody @Valid RequestItemRequestDto requestDto,
-                                                    BindingResult bindingResult) {
+    public Mono<ResponseEntity<byte[]>> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody @Valid RequestItemRequestDto requestDto,
+                                                          BindingResult bindingResult) {
         log.info("Создать запрос на вещь \"{}\" для пользователя ID = {}", requestDto.getDescription(), userId);
         generateCustomValidateException(requestDto, bindingResult);
         return itemRequestClient.createItemRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<byte[]>> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Получить все запросы на вещи для пользователя ID = {}", userId);
         return itemRequestClient.getItemRequests(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @PathVariable Long requestId) {
+    public Mono<ResponseEntity<byte[]>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long requestId,
+                                                           @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получить запрос на вещь ID = {} для пользователя ID = {}", requestId, userId);
-        return itemRequestClient.getItemRequestById(userId, requestId);
+        return itemRequestClient.getItemRequestById(userId, requestId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(name = "after", required = false) String after) {
         log.info("Получить все запросы на вещи для пользователя ID = {} с пагинацией", userId);
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+        return itemRequestClient.getAllItemRequests(userId, from, size, after);
     }
 
     private void generateCustomValidateException(RequestItemRequestDto requestDto, BindingResult bindingResult) {
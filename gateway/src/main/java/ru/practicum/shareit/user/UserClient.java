@@ -2,14 +2,15 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.util.Map;
+
 
 @Service
 public class UserClient extends BaseClient {
@@ -17,32 +18,32 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<byte[]>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<byte[]>> getUserById(long userId) {
+        return get("/{userId}", null, Map.of("userId", userId));
     }
 
-    public ResponseEntity<Object> createUser(UserRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> createUser(UserRequestDto requestDto) {
         return post("", requestDto);
     }
 
-    public ResponseEntity<Object> patchUser(long userId, UserRequestDto requestDto) {
-        return patch("/" + userId, requestDto);
+    public Mono<ResponseEntity<byte[]>> patchUser(long userId, UserRequestDto requestDto) {
+        return patch("/{userId}", null, Map.of("userId", userId), requestDto);
     }
 
-    public ResponseEntity<Object> removeUser(long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<byte[]>> removeUser(long userId) {
+        return delete("/{userId}", null, Map.of("userId", userId));
     }
 }
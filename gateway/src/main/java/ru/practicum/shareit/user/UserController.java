@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.exception.UserValidationException;
 
@@ -20,20 +21,20 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<byte[]>> getUsers() {
         log.info("Вывести всех пользователей");
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> getUserById(@PathVariable long userId) {
         log.info("Вывести пользователя ID = {}", userId);
         return userClient.getUserById(userId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserRequestDto requestDto, BindingResult bindingResult) {
+    public Mono<ResponseEntity<byte[]>> createUser(@RequestBody @Valid UserRequestDto requestDto, BindingResult bindingResult) {
         log.info("Создаем пользователя: {}", requestDto);
         generateCustomValidateException(requestDto, bindingResult);
         if (requestDto.getEmail() == null) {
@@ -43,17 +44,17 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> patchUser(@RequestBody @Valid UserRequestDto requestDto, BindingResult bindingResult,
-                                            @PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> patchUser(@RequestBody @Valid UserRequestDto requestDto, BindingResult bindingResult,
+                                                  @PathVariable long userId) {
         log.info("Обновляем пользователя ID = {}, новые значения {}", userId, requestDto);
         generateCustomValidateException(requestDto, bindingResult);
         return userClient.patchUser(userId, requestDto);
     }
 
     @DeleteMapping("/{userId}")
-    public void removeUser(@PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> removeUser(@PathVariable long userId) {
         log.info("Обновляем пользователя c Id: {}", userId);
-        userClient.removeUser(userId);
+        return userClient.removeUser(userId);
     }
 
     private void generateCustomValidateException(UserRequestDto requestDto, BindingResult bindingResult) {
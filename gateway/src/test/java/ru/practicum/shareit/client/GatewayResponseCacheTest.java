@@ -0,0 +1,186 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.config.ResponseCacheProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+
+class GatewayResponseCacheTest {
+    private static final String KEY = "/items/1 1";
+    private static final List<String> TAGS = List.of("items/1");
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayResponseCache cache;
+    //If-None-Match каждого обращения к серверу; null — запрос без перепроверки
+    private List<String> sentEtags;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new GatewayResponseCache(new ResponseCacheProperties(), meterRegistry);
+        sentEtags = new ArrayList<>();
+    }
+
+    @Test
+    void testGet_whenFresh_returnsCachedResponseWithoutServer() {
+        // given
+        cache.get(KEY, TAGS, server(ok("first", "\"v1\"", "max-age=60"))).block();
+
+        // when
+        ResponseEntity<byte[]> response = cache.get(KEY, TAGS, server(ok("second", "\"v2\"", "max-age=60"))).block();
+
+        // then
+        assertThat(sentEtags, hasSize(1));
+        assertThat(body(response), equalTo("first"));
+        assertThat(requests("hit"), equalTo(1.0));
+    }
+
+    @Test
+    void testGet_whenStale_revalidatesWithEtagAndRefreshesEntry() {
+        // given
+        cache.get(KEY, TAGS, server(ok("first", "\"v1\"", null))).block();
+
+        // when
+        ResponseEntity<byte[]> revalidated = cache.get(KEY, TAGS, server(notModified("\"v1\"", "max-age=60"))).block();
+        ResponseEntity<byte[]> fresh = cache.get(KEY, TAGS, server(ok("second", "\"v2\"", null))).block();
+
+        // then
+        //сохранённый ответ перепроверен по ETag, а max-age из 304 сделал его снова свежим
+        assertThat(sentEtags, contains(nullValue(), equalTo("\"v1\"")));
+        assertThat(revalidated.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(body(revalidated), equalTo("first"));
+        assertThat(body(fresh), equalTo("first"));
+        assertThat(requests("revalidated"), equalTo(1.0));
+        assertThat(requests("hit"), equalTo(1.0));
+    }
+
+    @Test
+    void testGet_whenInvalidatedDuringRequest_doesNotReuseResponse() {
+        // given
+        //сброс пришёл, пока запрос был у сервера: ответ мог быть собран до изменения
+        Function<String, Mono<ResponseEntity<byte[]>>> racingServer = etag -> {
+            sentEtags.add(etag);
+            return Mono.fromCallable(() -> {
+                cache.invalidate(TAGS);
+                return ok("before change", "\"v1\"", "max-age=60");
+            });
+        };
+        cache.get(KEY, TAGS, racingServer).block();
+
+        // when
+        ResponseEntity<byte[]> response = cache.get(KEY, TAGS, server(ok("after change", "\"v2\"", "max-age=60")))
+                .block();
+
+        // then
+        assertThat(sentEtags, contains(nullValue(), nullValue()));
+        assertThat(body(response), equalTo("after change"));
+        assertThat(requests("hit"), equalTo(0.0));
+    }
+
+    @Test
+    void testGet_whenInvalidatedAfterResponse_fetchesAgain() {
+        // given
+        cache.get(KEY, TAGS, server(ok("first", "\"v1\"", "max-age=60"))).block();
+
+        // when
+        cache.invalidate(List.of("items/2"));
+        ResponseEntity<byte[]> otherTagResponse = cache.get(KEY, TAGS, server(ok("second", "\"v2\"", "max-age=60")))
+                .block();
+        cache.invalidate(TAGS);
+        ResponseEntity<byte[]> sameTagResponse = cache.get(KEY, TAGS, server(ok("third", "\"v3\"", "max-age=60")))
+                .block();
+
+        // then
+        assertThat(body(otherTagResponse), equalTo("first"));
+        assertThat(body(sameTagResponse), equalTo("third"));
+        assertThat(sentEtags, hasSize(2));
+    }
+
+    @Test
+    void testGet_whenNoStore_doesNotCache() {
+        // given
+        cache.get(KEY, TAGS, server(ok("first", "\"v1\"", "no-store, max-age=60"))).block();
+
+        // when
+        ResponseEntity<byte[]> response = cache.get(KEY, TAGS, server(ok("second", "\"v2\"", "max-age=60"))).block();
+
+        // then
+        assertThat(sentEtags, contains(nullValue(), nullValue()));
+        assertThat(body(response), equalTo("second"));
+    }
+
+    @Test
+    void testGet_whenNotOk_doesNotCache() {
+        // given
+        ResponseEntity<byte[]> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .eTag("\"v1\"")
+                .header("Cache-Control", "max-age=60")
+                .body("not found".getBytes(StandardCharsets.UTF_8));
+        cache.get(KEY, TAGS, server(notFound)).block();
+
+        // when
+        ResponseEntity<byte[]> response = cache.get(KEY, TAGS, server(ok("found", "\"v2\"", "max-age=60"))).block();
+
+        // then
+        assertThat(sentEtags, contains(nullValue(), nullValue()));
+        assertThat(body(response), equalTo("found"));
+    }
+
+    @Test
+    void testGet_whenRevalidationReturnsError_dropsEntry() {
+        // given
+        cache.get(KEY, TAGS, server(ok("first", "\"v1\"", null))).block();
+        cache.get(KEY, TAGS, server(ResponseEntity.status(HttpStatus.NOT_FOUND).build())).block();
+
+        // when
+        cache.get(KEY, TAGS, server(ok("second", "\"v2\"", null))).block();
+
+        // then
+        //после 404 сохранённый ответ удалён: следующий запрос идёт без If-None-Match
+        assertThat(sentEtags, contains(nullValue(), equalTo("\"v1\""), nullValue()));
+    }
+
+    private Function<String, Mono<ResponseEntity<byte[]>>> server(ResponseEntity<byte[]> response) {
+        return etag -> {
+            sentEtags.add(etag);
+            return Mono.just(response);
+        };
+    }
+
+    private static ResponseEntity<byte[]> ok(String body, String etag, String cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag);
+        if (cacheControl != null) {
+            builder.header("Cache-Control", cacheControl);
+        }
+        return builder.body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag, String cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .header("Cache-Control", cacheControl)
+                .build();
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.response.cache.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.config.ResponseCacheProperties;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemClientTest {
+    private ItemClient itemClient;
+    //Запросы, дошедшие до сервера
+    private List<ClientRequest> serverRequests;
+    //Версия вещи на сервере: меняется при PATCH
+    private int itemVersion;
+
+    @BeforeEach
+    public void setUp() {
+        GatewayResponseCache responseCache = new GatewayResponseCache(new ResponseCacheProperties(),
+                new SimpleMeterRegistry());
+        serverRequests = new ArrayList<>();
+        itemVersion = 1;
+        WebClient.Builder builder = WebClient.builder()
+                .exchangeFunction(this::exchange)
+                .filter(responseCache.invalidationFilter());
+        itemClient = new ItemClient("http://server", builder, responseCache);
+    }
+
+    @Test
+    void testGetItemById_whenSameUser_returnsCachedResponse() {
+        // given
+        itemClient.getItemById(1L, 1L, null).block();
+
+        // when
+        ResponseEntity<byte[]> response = itemClient.getItemById(1L, 1L, null).block();
+
+        // then
+        assertThat(serverRequests.size(), equalTo(1));
+        assertThat(body(response), equalTo("item 1 v1 for user 1"));
+    }
+
+    @Test
+    void testGetItemById_whenOtherUser_doesNotShareCachedResponse() {
+        // given
+        //карточка вещи зависит от пользователя: бронирования видит только владелец
+        itemClient.getItemById(1L, 1L, null).block();
+
+        // when
+        ResponseEntity<byte[]> response = itemClient.getItemById(2L, 1L, null).block();
+
+        // then
+        assertThat(userIds(), contains("1", "2"));
+        assertThat(body(response), equalTo("item 1 v1 for user 2"));
+    }
+
+    @Test
+    void testGetItemById_whenClientEtagMatches_returnsNotModified() {
+        // given
+        itemClient.getItemById(1L, 1L, null).block();
+
+        // when
+        ResponseEntity<byte[]> response = itemClient.getItemById(1L, 1L, "\"1-1-1\"").block();
+
+        // then
+        assertThat(serverRequests.size(), equalTo(1));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+    }
+
+    @Test
+    void testGetItemById_whenItemPatched_invalidatesCachedResponse() {
+        // given
+        itemClient.getItemById(1L, 1L, null).block();
+
+        // when
+        itemClient.patchItem(1L, 1L, new ItemRequestDto()).block();
+        ResponseEntity<byte[]> response = itemClient.getItemById(1L, 1L, null).block();
+
+        // then
+        assertThat(serverRequests.size(), equalTo(3));
+        assertThat(body(response), equalTo("item 1 v2 for user 1"));
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        serverRequests.add(request);
+        String userId = request.headers().getFirst("X-Sharer-User-Id");
+        if (request.method() == HttpMethod.PATCH) {
+            itemVersion++;
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(GatewayResponseCache.INVALIDATE_HEADER, "items/1")
+                    .build());
+        }
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, "\"1-" + itemVersion + "-" + userId + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                .body("item 1 v" + itemVersion + " for user " + userId)
+                .build());
+    }
+
+    private List<String> userIds() {
+        List<String> userIds = new ArrayList<>();
+        serverRequests.forEach(request -> userIds.add(request.headers().getFirst("X-Sharer-User-Id")));
+        return userIds;
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
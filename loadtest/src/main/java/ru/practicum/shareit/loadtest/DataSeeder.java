@@ -0,0 +1,114 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Наполняет пустую базу через шлюз теми же запросами, что и клиенты: пользователи, запросы на вещи,
+ * вещи (часть — в ответ на запросы), бронирования и их согласование владельцами.
+ */
+public class DataSeeder {
+    private static final List<String> ITEM_NAMES = List.of("Дрель", "Отвёртка", "Лестница", "Палатка", "Велосипед",
+            "Перфоратор");
+    private static final List<String> ITEM_DESCRIPTIONS = List.of("ударная, с набором свёрл", "аккумуляторная",
+            "складная, три секции", "четырёхместная", "горный, 21 скорость");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public DataSeeder(HttpClient httpClient, String baseUrl) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+    }
+
+    public SeedData seed(LoadTestConfig config) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeedData data = new SeedData();
+        // Уникальная часть email позволяет наполнять уже запущенный стек повторно
+        long runId = System.currentTimeMillis();
+
+        for (int i = 0; i < config.users; i++) {
+            ObjectNode user = objectMapper.createObjectNode()
+                    .put("name", "user" + i)
+                    .put("email", "user" + i + "." + runId + "@loadtest.ru");
+            data.userIds.add(post("/users", null, user).get("id").asLong());
+        }
+
+        List<Long> requestIds = new ArrayList<>();
+        for (long userId : data.userIds) {
+            ObjectNode request = objectMapper.createObjectNode()
+                    .put("description", "Нужна " + ITEM_NAMES.get(random.nextInt(ITEM_NAMES.size())).toLowerCase()
+                            + " на выходные");
+            requestIds.add(post("/requests", userId, request).get("id").asLong());
+        }
+
+        for (long ownerId : data.userIds) {
+            for (int i = 0; i < config.itemsPerUser; i++) {
+                ObjectNode item = objectMapper.createObjectNode()
+                        .put("name", ITEM_NAMES.get(random.nextInt(ITEM_NAMES.size())) + " " + i)
+                        .put("description", ITEM_DESCRIPTIONS.get(random.nextInt(ITEM_DESCRIPTIONS.size())))
+                        .put("available", true);
+                if (i == 0) {
+                    item.put("requestId", requestIds.get(random.nextInt(requestIds.size())));
+                }
+                data.items.add(new SeedData.Item(post("/items", ownerId, item).get("id").asLong(), ownerId));
+            }
+        }
+
+        // Каждое бронирование занимает свою неделю: согласование половины из них не даёт конфликтов
+        LocalDateTime start = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.SECONDS);
+        int week = 0;
+        for (long bookerId : data.userIds) {
+            for (int i = 0; i < config.bookingsPerUser; i++) {
+                SeedData.Item item = data.randomItem(random);
+                while (item.getOwnerId() == bookerId) {
+                    item = data.randomItem(random);
+                }
+                LocalDateTime bookingStart = start.plusWeeks(week++);
+                ObjectNode booking = objectMapper.createObjectNode()
+                        .put("itemId", item.getId())
+                        .put("start", bookingStart.toString())
+                        .put("end", bookingStart.plusDays(2).toString());
+                long bookingId = post("/bookings", bookerId, booking).get("id").asLong();
+                if (i % 2 == 0) {
+                    send(HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/" + bookingId + "?approved=true"))
+                            .header(LoadEndpoint.USER_HEADER, String.valueOf(item.getOwnerId()))
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                }
+            }
+        }
+        return data;
+    }
+
+    private JsonNode post(String path, Long userId, ObjectNode body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (userId != null) {
+            request.header(LoadEndpoint.USER_HEADER, String.valueOf(userId));
+        }
+        return objectMapper.readTree(send(request));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Не удалось наполнить базу: " + response.request().method() + " "
+                    + response.uri() + " вернул " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
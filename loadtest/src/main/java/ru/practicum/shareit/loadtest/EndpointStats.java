@@ -0,0 +1,48 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и ошибки одного запроса за фазу измерения. Задержки хранятся в микросекундах.
+ */
+public class EndpointStats {
+    // До минуты с точностью до трёх значащих цифр
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean isError) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        if (isError) {
+            errors.increment();
+        }
+    }
+
+    long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    double getErrorRate() {
+        return getCount() == 0 ? 0 : (double) getErrors() / getCount();
+    }
+
+    double getPercentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double getMaxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+
+    void addTo(EndpointStats total) {
+        total.latencies.add(latencies);
+        total.errors.add(errors.sum());
+    }
+}
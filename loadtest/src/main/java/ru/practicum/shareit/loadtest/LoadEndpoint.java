@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Запросы к шлюзу, из которых собирается нагрузка. Пользователи, вещи и слова поиска берутся из {@link SeedData}.
+ */
+public enum LoadEndpoint {
+    BOOKINGS("bookings", "GET /bookings") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings?state=ALL&from=0&size=10"))
+                    .header(USER_HEADER, String.valueOf(data.randomUser(random)))
+                    .GET();
+        }
+    },
+    SEARCH("search", "GET /items/search") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/items/search?text="
+                            + URLEncoder.encode(data.randomSearchTerm(random), StandardCharsets.UTF_8) + "&from=0&size=10"))
+                    .header(USER_HEADER, String.valueOf(data.randomUser(random)))
+                    .GET();
+        }
+    },
+    ITEMS("items", "GET /items") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/items?from=0&size=10"))
+                    .header(USER_HEADER, String.valueOf(data.randomUser(random)))
+                    .GET();
+        }
+    },
+    ITEM("item", "GET /items/{id}") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/items/" + data.randomItem(random).getId()))
+                    .header(USER_HEADER, String.valueOf(data.randomUser(random)))
+                    .GET();
+        }
+    },
+    REQUESTS("requests", "GET /requests/all") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/requests/all?from=0&size=10"))
+                    .header(USER_HEADER, String.valueOf(data.randomUser(random)))
+                    .GET();
+        }
+    },
+    CREATE_BOOKING("create-booking", "POST /bookings") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            SeedData.Item item = data.randomItem(random);
+            long bookerId = data.randomUserExcept(random, item.getOwnerId());
+            //Даты далеко в будущем и без согласования: пересечения с другими бронированиями не мешают созданию
+            LocalDateTime start = LocalDateTime.now().plusDays(365 + random.nextInt(365)).truncatedTo(ChronoUnit.SECONDS);
+            String body = "{\"itemId\":" + item.getId() + ",\"start\":\"" + start + "\",\"end\":\""
+                    + start.plusDays(1) + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                    .header(USER_HEADER, String.valueOf(bookerId))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final String name;
+    private final String title;
+
+    LoadEndpoint(String name, String title) {
+        this.name = name;
+        this.title = title;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random);
+
+    String getTitle() {
+        return title;
+    }
+
+    static LoadEndpoint byName(String name) {
+        for (LoadEndpoint endpoint : values()) {
+            if (endpoint.name.equals(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный запрос в смеси нагрузки: " + name);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Замкнутая модель нагрузки: {@code concurrency} клиентов без пауз отправляют запросы из смеси по весам.
+ * Запросы фазы прогрева не учитываются. Ошибкой считается ответ не 2xx, таймаут или обрыв соединения.
+ */
+public class LoadGenerator {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final SeedData data;
+    private final LoadTestConfig config;
+    private final LoadEndpoint[] weightedEndpoints;
+
+    private volatile boolean isRecording;
+    private volatile boolean isStopped;
+
+    public LoadGenerator(HttpClient httpClient, String baseUrl, SeedData data, LoadTestConfig config) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.config = config;
+        this.weightedEndpoints = config.mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(LoadEndpoint[]::new);
+    }
+
+    public Map<LoadEndpoint, EndpointStats> run() throws InterruptedException {
+        Map<LoadEndpoint, EndpointStats> stats = new EnumMap<>(LoadEndpoint.class);
+        for (LoadEndpoint endpoint : config.mix.keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(config.concurrency);
+        for (int i = 0; i < config.concurrency; i++) {
+            clients.execute(() -> runClient(stats));
+        }
+        Thread.sleep(config.warmup.toMillis());
+        isRecording = true;
+        Thread.sleep(config.duration.toMillis());
+        isStopped = true;
+        clients.shutdown();
+        if (!clients.awaitTermination(REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            clients.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void runClient(Map<LoadEndpoint, EndpointStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!isStopped) {
+            LoadEndpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            HttpRequest request = endpoint.request(baseUrl, data, random).timeout(REQUEST_TIMEOUT).build();
+
+            boolean isError;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                isError = response.statusCode() < 200 || response.statusCode() >= 300;
+            } catch (IOException e) {
+                isError = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (isRecording && !isStopped) {
+                stats.get(endpoint).record(latency, isError);
+            }
+        }
+    }
+}
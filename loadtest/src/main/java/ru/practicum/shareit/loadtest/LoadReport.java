@@ -0,0 +1,102 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Отчёт одного прогона: по каждому запросу и в сумме — пропускная способность, p50/p99/p999, максимум и доля ошибок.
+ */
+public class LoadReport {
+    private static final String ROW_FORMAT = "%-20s %9s %9s %9s %9s %9s %9s %8s%n";
+
+    private final String mode;
+    private final Map<LoadEndpoint, EndpointStats> stats;
+    private final EndpointStats total = new EndpointStats();
+    private final double seconds;
+
+    public LoadReport(String mode, Map<LoadEndpoint, EndpointStats> stats, LoadTestConfig config) {
+        this.mode = mode;
+        this.stats = stats;
+        this.seconds = config.duration.toMillis() / 1000.0;
+        stats.values().forEach(endpointStats -> endpointStats.addTo(total));
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Режим потоков: %s, измерение %.0f с%n", mode, seconds));
+        report.append(String.format(Locale.ROOT, ROW_FORMAT,
+                "Запрос", "Запросов", "Запр./с", "p50, мс", "p99, мс", "p999, мс", "max, мс", "Ошибки"));
+        stats.forEach((endpoint, endpointStats) -> report.append(formatRow(endpoint.getTitle(), endpointStats)));
+        report.append(formatRow("Всего", total));
+        return report.toString();
+    }
+
+    public void write(Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("report-" + mode + ".txt"), format());
+
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,requests,throughput,p50_ms,p99_ms,p999_ms,max_ms,error_rate");
+        stats.forEach((endpoint, endpointStats) -> csv.add(formatCsv(endpoint.getTitle(), endpointStats)));
+        csv.add(formatCsv("total", total));
+        Files.write(reportDir.resolve("report-" + mode + ".csv"), csv);
+    }
+
+    // Нарушения порогов: доля ошибок по всем запросам и p99 каждого запроса
+    public List<String> checkBudgets(LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        if (total.getErrorRate() > config.maxErrorRate) {
+            violations.add(String.format(Locale.ROOT, "%s: доля ошибок %.2f%% больше допустимой %.2f%%",
+                    mode, total.getErrorRate() * 100, config.maxErrorRate * 100));
+        }
+        if (config.maxP99Millis > 0) {
+            stats.forEach((endpoint, endpointStats) -> {
+                if (endpointStats.getPercentileMillis(99) > config.maxP99Millis) {
+                    violations.add(String.format(Locale.ROOT, "%s: p99 %s %.1f мс больше допустимых %d мс",
+                            mode, endpoint.getTitle(), endpointStats.getPercentileMillis(99), config.maxP99Millis));
+                }
+            });
+        }
+        if (total.getCount() == 0) {
+            violations.add(mode + ": за время измерения не выполнено ни одного запроса");
+        }
+        return violations;
+    }
+
+    // Сравнение режимов потоков по сумме запросов: пропускная способность и хвост задержек
+    public static String compare(List<LoadReport> reports) {
+        StringBuilder comparison = new StringBuilder("Сравнение режимов потоков:\n");
+        comparison.append(String.format(Locale.ROOT, "%-10s %9s %9s %9s %9s %8s%n",
+                "Режим", "Запр./с", "p50, мс", "p99, мс", "p999, мс", "Ошибки"));
+        for (LoadReport report : reports) {
+            comparison.append(String.format(Locale.ROOT, "%-10s %9.1f %9.2f %9.2f %9.2f %7.2f%%%n",
+                    report.mode, report.total.getCount() / report.seconds, report.total.getPercentileMillis(50),
+                    report.total.getPercentileMillis(99), report.total.getPercentileMillis(99.9),
+                    report.total.getErrorRate() * 100));
+        }
+        return comparison.toString();
+    }
+
+    private String formatRow(String title, EndpointStats endpointStats) {
+        return String.format(Locale.ROOT, ROW_FORMAT, title,
+                endpointStats.getCount(),
+                String.format(Locale.ROOT, "%.1f", endpointStats.getCount() / seconds),
+                String.format(Locale.ROOT, "%.2f", endpointStats.getPercentileMillis(50)),
+                String.format(Locale.ROOT, "%.2f", endpointStats.getPercentileMillis(99)),
+                String.format(Locale.ROOT, "%.2f", endpointStats.getPercentileMillis(99.9)),
+                String.format(Locale.ROOT, "%.2f", endpointStats.getMaxMillis()),
+                String.format(Locale.ROOT, "%.2f%%", endpointStats.getErrorRate() * 100));
+    }
+
+    private String formatCsv(String title, EndpointStats endpointStats) {
+        return String.format(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.4f", title,
+                endpointStats.getCount(), endpointStats.getCount() / seconds, endpointStats.getPercentileMillis(50),
+                endpointStats.getPercentileMillis(99), endpointStats.getPercentileMillis(99.9),
+                endpointStats.getMaxMillis(), endpointStats.getErrorRate());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста в виде {@code --ключ=значение}. Все параметры необязательны.
+ */
+public class LoadTestConfig {
+    // Адрес уже запущенного шлюза: тогда сервер и шлюз не запускаются, а режимы потоков не перебираются
+    final String target;
+    final Path serverJar;
+    final Path gatewayJar;
+    final String java;
+    final int serverPort;
+    final int gatewayPort;
+    // Режимы shareit.threads.mode, для каждого стек запускается заново на чистой базе
+    final List<String> threadsModes;
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+    final int users;
+    final int itemsPerUser;
+    final int bookingsPerUser;
+    final Map<LoadEndpoint, Integer> mix;
+    final double maxErrorRate;
+    // 0 — p99 не проверяется
+    final long maxP99Millis;
+    final Path reportDir;
+
+    private LoadTestConfig(Map<String, String> args) {
+        target = args.get("target");
+        serverJar = Path.of(args.getOrDefault("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT.jar"));
+        gatewayJar = Path.of(args.getOrDefault("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"));
+        java = args.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        serverPort = Integer.parseInt(args.getOrDefault("server-port", "19090"));
+        gatewayPort = Integer.parseInt(args.getOrDefault("gateway-port", "18080"));
+        threadsModes = Arrays.asList(args.getOrDefault("threads-modes", "platform").split(","));
+        concurrency = Integer.parseInt(args.getOrDefault("concurrency", "64"));
+        warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "30")));
+        users = Integer.parseInt(args.getOrDefault("users", "20"));
+        itemsPerUser = Integer.parseInt(args.getOrDefault("items-per-user", "10"));
+        bookingsPerUser = Integer.parseInt(args.getOrDefault("bookings-per-user", "5"));
+        mix = parseMix(args.getOrDefault("mix",
+                "bookings:25,search:30,items:15,item:10,requests:15,create-booking:5"));
+        maxErrorRate = Double.parseDouble(args.getOrDefault("max-error-rate", "0.01"));
+        maxP99Millis = Long.parseLong(args.getOrDefault("max-p99-ms", "0"));
+        reportDir = Path.of(args.getOrDefault("report-dir", "loadtest/target/loadtest"));
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --ключ=значение: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    boolean isExternalTarget() {
+        return target != null;
+    }
+
+    List<String> modesToRun() {
+        return isExternalTarget() ? List.of("external") : new ArrayList<>(threadsModes);
+    }
+
+    private static Map<LoadEndpoint, Integer> parseMix(String mix) {
+        Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(LoadEndpoint.byName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузочный тест шлюз → сервер → база. Для каждого режима потоков запускает сервер и шлюз на H2 в памяти,
+ * наполняет базу через шлюз, гоняет смесь запросов и печатает отчёт по каждому запросу.
+ * Завершается с кодом 1, если превышены пороги ошибок или p99.
+ *
+ * <p>Запуск после {@code mvn -B package -DskipTests}:
+ * <pre>
+ * mvn -pl loadtest exec:exec -Dloadtest.args="--threads-modes=platform,virtual --concurrency=256 --max-p99-ms=200"
+ * </pre>
+ * Режим virtual требует Java 21 для сервера и шлюза: путь задаётся в {@code --java}.
+ * С {@code --target=http://host:port} нагружается уже запущенный шлюз.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+
+        List<LoadReport> reports = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        for (String mode : config.modesToRun()) {
+            LoadReport report;
+            if (config.isExternalTarget()) {
+                report = runLoad(config, mode, config.target, httpClient);
+            } else {
+                //Режим, в котором стек не запустился (например, virtual на Java ниже 21), не прерывает остальные
+                try (ShareItStack ignored = ShareItStack.start(config, mode, httpClient)) {
+                    report = runLoad(config, mode, "http://localhost:" + config.gatewayPort, httpClient);
+                } catch (IllegalStateException e) {
+                    System.out.printf("[%s] %s%n", mode, e.getMessage());
+                    violations.add(mode + ": " + e.getMessage());
+                    continue;
+                }
+            }
+            System.out.println(report.format());
+            report.write(config.reportDir);
+            reports.add(report);
+            violations.addAll(report.checkBudgets(config));
+        }
+
+        if (reports.size() > 1) {
+            System.out.println(LoadReport.compare(reports));
+        }
+        System.out.println("Отчёты: " + config.reportDir.toAbsolutePath());
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.out.println("Превышен порог — " + violation));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static LoadReport runLoad(LoadTestConfig config, String mode, String baseUrl, HttpClient httpClient)
+            throws Exception {
+        System.out.printf("[%s] Наполнение базы через %s%n", mode, baseUrl);
+        SeedData data = new DataSeeder(httpClient, baseUrl).seed(config);
+        System.out.printf("[%s] Нагрузка: %d клиентов, прогрев %d с, измерение %d с%n", mode, config.concurrency,
+                config.warmup.toSeconds(), config.duration.toSeconds());
+        Map<LoadEndpoint, EndpointStats> stats = new LoadGenerator(httpClient, baseUrl, data, config).run();
+        return new LoadReport(mode, stats, config);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Данные, созданные {@link DataSeeder} через шлюз: из них нагрузка выбирает пользователей и вещи.
+ */
+public class SeedData {
+    static final List<String> SEARCH_TERMS = List.of("дрель", "отвёртка", "лестница", "палатка", "велосипед",
+            "перфоратор", "ударная", "складная");
+
+    final List<Long> userIds = new ArrayList<>();
+    final List<Item> items = new ArrayList<>();
+
+    long randomUser(ThreadLocalRandom random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    long randomUserExcept(ThreadLocalRandom random, long userId) {
+        long randomUserId = randomUser(random);
+        while (randomUserId == userId) {
+            randomUserId = randomUser(random);
+        }
+        return randomUserId;
+    }
+
+    Item randomItem(ThreadLocalRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    String randomSearchTerm(ThreadLocalRandom random) {
+        return SEARCH_TERMS.get(random.nextInt(SEARCH_TERMS.size()));
+    }
+
+    static class Item {
+        private final long id;
+        private final long ownerId;
+
+        Item(long id, long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        long getOwnerId() {
+            return ownerId;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервер и шлюз из собранных jar в отдельных процессах. Сервер работает с H2 в памяти (профиль test),
+ * поэтому каждый запуск начинается с пустой базы. Вывод процессов пишется в каталог отчёта.
+ */
+public class ShareItStack implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient httpClient;
+    private Process server;
+    private Process gateway;
+
+    private ShareItStack(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public static ShareItStack start(LoadTestConfig config, String threadsMode, HttpClient httpClient)
+            throws IOException, InterruptedException {
+        Files.createDirectories(config.reportDir);
+        ShareItStack stack = new ShareItStack(httpClient);
+        try {
+            String serverUrl = "http://localhost:" + config.serverPort;
+            Path serverLog = config.reportDir.resolve("server-" + threadsMode + ".log");
+            stack.server = launch(serverLog, null, List.of(
+                    config.java, "-jar", config.serverJar.toString(),
+                    "--spring.profiles.active=test",
+                    "--server.port=" + config.serverPort,
+                    "--shareit.threads.mode=" + threadsMode));
+            stack.awaitHealthy(stack.server, serverUrl, "сервер", serverLog);
+
+            String gatewayUrl = "http://localhost:" + config.gatewayPort;
+            Path gatewayLog = config.reportDir.resolve("gateway-" + threadsMode + ".log");
+            stack.gateway = launch(gatewayLog, serverUrl, List.of(
+                    config.java, "-jar", config.gatewayJar.toString(),
+                    "--server.port=" + config.gatewayPort,
+                    "--shareit.threads.mode=" + threadsMode,
+                    // Отладочный лог каждого обмена с сервером иначе сам становится узким местом
+                    "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO"));
+            stack.awaitHealthy(stack.gateway, gatewayUrl, "шлюз", gatewayLog);
+            return stack;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop(gateway);
+        stop(server);
+    }
+
+    private static Process launch(Path log, String serverUrl, List<String> command) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        if (serverUrl != null) {
+            builder.environment().put("SHAREIT_SERVER_URL", serverUrl);
+        }
+        return builder.start();
+    }
+
+    private void awaitHealthy(Process process, String baseUrl, String name, Path log) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        Instant deadline = Instant.now().plus(STARTUP_TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Не удалось запустить " + name + ": процесс завершился с кодом "
+                        + process.exitValue() + ", подробности в " + log);
+            }
+            try {
+                if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ещё не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Не удалось запустить " + name + " за " + STARTUP_TIMEOUT.toSeconds()
+                + " с, подробности в " + log);
+    }
+
+    private static void stop(Process process) {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @ToString
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -25,20 +26,26 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime endDate;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    // optional = false, как NOT NULL в схеме: иначе производные запросы Spring Data (findByBookerId,
+    // findByItem_OwnerId) соединяют users и items внешним соединением и фильтруют по его столбцу,
+    // и H2 не может использовать индексы по booker_id и item_id
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     // исключаем все поля с отложенной загрузкой из
     // метода toString, чтобы не было случайных обращений
     // базе данных, например при выводе в лог.
     @ToString.Exclude
     private Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @ToString.Exclude
     private User booker;
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    @Version
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,11 +3,22 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.ErrorHandler;
+import ru.practicum.shareit.error.ErrorResponse;
+import ru.practicum.shareit.util.BatchResult;
+import ru.practicum.shareit.util.CacheInvalidation;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -15,24 +26,55 @@ import java.util.Collection;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final ErrorHandler errorHandler;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingDto bookingDto) {
+    public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingDto bookingDto,
+                                    HttpServletResponse response) {
         log.info("Создать бронирование на вещь ID = {} для пользователя ID = {}", bookingDto.getItemId(), userId);
-        return bookingService.createBooking(userId, bookingDto);
+        BookingDto createdBooking = bookingService.createBooking(userId, bookingDto);
+        //Новое бронирование может стать ближайшим в карточке вещи у владельца
+        CacheInvalidation.invalidate(response, CacheInvalidation.item(bookingDto.getItemId()));
+        return createdBooking;
     }
 
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
-                                     @RequestParam Boolean approved) {
+                                     @RequestParam Boolean approved, HttpServletResponse response) {
         log.info("Подтвердить бронирование ID = {} пользователем ID = {}", bookingId, userId);
-        return bookingService.approveBooking(userId, bookingId, approved);
+        BookingDto approvedBooking = bookingService.approveBooking(userId, bookingId, approved);
+        CacheInvalidation.invalidate(response, CacheInvalidation.item(approvedBooking.getItemId()));
+        return approvedBooking;
+    }
+
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody List<BookingDto> bookingDtos,
+                                                      HttpServletResponse response) {
+        log.info("Создать пакет из {} бронирований для пользователя ID = {}", bookingDtos.size(), userId);
+        List<BatchResult<BookingDto>> results = bookingService.createBookings(userId, bookingDtos);
+        invalidateItems(response, results);
+        return toBatchResultDtos(results, HttpStatus.CREATED);
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingBatchResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookingApprovalDto> approvals,
+                                                       HttpServletResponse response) {
+        log.info("Подтвердить пакет из {} бронирований пользователем ID = {}", approvals.size(), userId);
+        List<BatchResult<BookingDto>> results = bookingService.approveBookings(userId, approvals);
+        invalidateItems(response, results);
+        return toBatchResultDtos(results, HttpStatus.OK);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
+    public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId,
+                                 WebRequest request) {
         log.info("Получить бронирование ID = {} пользователем ID = {}", bookingId, userId);
+        if (request.checkNotModified(bookingService.getBookingEtag(userId, bookingId))) {
+            return null;
+        }
         return bookingService.getBooking(userId, bookingId);
     }
 
@@ -45,6 +87,15 @@ public class BookingController {
         return bookingService.getAllBookings(userId, BookingState.valueOf(state), from, size);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<List<BookingDto>> getBookingsAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam String after,
+                                                             @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Получить бронирования пользователя ID = {} в состоянии {} после позиции {}", userId, state, after);
+        return bookingService.getAllBookingsAfter(userId, BookingState.valueOf(state), after, size).toResponseEntity();
+    }
+
     @GetMapping("/owner")
     public Collection<BookingDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam(defaultValue = "ALL") String state,
@@ -53,4 +104,44 @@ public class BookingController {
         log.info("Получить бронирования владельца ID = {} в состоянии {}", userId, state);
         return bookingService.getAllBookingsByOwner(userId, BookingState.valueOf(state), from, size);
     }
+
+    @GetMapping(path = "/owner", params = "after")
+    public ResponseEntity<List<BookingDto>> getBookingsByOwnerAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam String after,
+                                                                    @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Получить бронирования владельца ID = {} в состоянии {} после позиции {}", userId, state, after);
+        return bookingService.getAllBookingsByOwnerAfter(userId, BookingState.valueOf(state), after, size).toResponseEntity();
+    }
+
+    private void invalidateItems(HttpServletResponse response, List<BatchResult<BookingDto>> results) {
+        String[] tags = results.stream()
+                .filter(BatchResult::isSuccess)
+                .map(result -> CacheInvalidation.item(result.getValue().getItemId()))
+                .distinct()
+                .toArray(String[]::new);
+        if (tags.length > 0) {
+            CacheInvalidation.invalidate(response, tags);
+        }
+    }
+
+    //Каждая запись получает статус и тело, которые вернул бы одиночный запрос
+    private List<BookingBatchResultDto> toBatchResultDtos(List<BatchResult<BookingDto>> results, HttpStatus successStatus) {
+        List<BookingBatchResultDto> dtos = new ArrayList<>();
+        for (BatchResult<BookingDto> result : results) {
+            if (result.isSuccess()) {
+                dtos.add(BookingBatchResultDto.builder()
+                        .status(successStatus.value())
+                        .booking(result.getValue())
+                        .build());
+            } else {
+                ResponseEntity<ErrorResponse> error = errorHandler.toResponseEntity(result.getError());
+                dtos.add(BookingBatchResultDto.builder()
+                        .status(error.getStatusCodeValue())
+                        .error(error.getBody())
+                        .build());
+            }
+        }
+        return dtos;
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+
+public interface BookingKeysetRepository {
+    Slice<Booking> findByBookerIdAfter(Long bookerId, BookingState state, LocalDateTime dateTime,
+                                       PageCursor after, Pageable page);
+
+    Slice<Booking> findByItemOwnerIdAfter(Long ownerId, BookingState state, LocalDateTime dateTime,
+                                          PageCursor after, Pageable page);
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.PageGetter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+
+/**
+ * Постраничный вывод бронирований по ключу (end_date, id) в порядке убывания.
+ * Следующая страница начинается строго после позиции {@code after}, поэтому глубина
+ * пролистывания не влияет на стоимость запроса, а запрос count(*) не выполняется.
+ * Вещь и автор бронирования загружаются тем же запросом.
+ */
+@RequiredArgsConstructor
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findByBookerIdAfter(Long bookerId, BookingState state, LocalDateTime dateTime,
+                                              PageCursor after, Pageable page) {
+        return find("b.booker.id = :userId", bookerId, state, dateTime, after, page);
+    }
+
+    @Override
+    public Slice<Booking> findByItemOwnerIdAfter(Long ownerId, BookingState state, LocalDateTime dateTime,
+                                                 PageCursor after, Pageable page) {
+        return find("i.ownerId = :userId", ownerId, state, dateTime, after, page);
+    }
+
+    private Slice<Booking> find(String userCondition, Long userId, BookingState state, LocalDateTime dateTime,
+                                PageCursor after, Pageable page) {
+        StringBuilder jpql = new StringBuilder("select b from Booking b ")
+                .append("join fetch b.item i ")
+                .append("join fetch b.booker ")
+                .append("where ").append(userCondition);
+        switch (state) {
+            case CURRENT:
+                jpql.append(" and :dateTime >= b.startDate and :dateTime <= b.endDate");
+                break;
+            case PAST:
+                jpql.append(" and b.endDate <= :dateTime");
+                break;
+            case FUTURE:
+                jpql.append(" and b.startDate >= :dateTime");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            jpql.append(" and (b.endDate < :afterDate or (b.endDate = :afterDate and b.id < :afterId))");
+        }
+        jpql.append(" order by b.endDate desc, b.id desc");
+
+        TypedQuery<Booking> query = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setParameter("userId", userId);
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter("dateTime", dateTime);
+                break;
+            case WAITING:
+            case REJECTED:
+                query.setParameter("status", BookingStatus.valueOf(state.name()));
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            query.setParameter("afterDate", after.getDate())
+                    .setParameter("afterId", after.getId());
+        }
+
+        return PageGetter.toSlice(query.setMaxResults(page.getPageSize() + 1).getResultList(), page);
+    }
+}
@@ -1,49 +1,143 @@
 package ru.practicum.shareit.booking.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
 
-    Page<Booking> findByBookerId(Long bookerId, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Override
+    Optional<Booking> findById(Long id);
 
-    Page<Booking> findByBookerIdAndEndDateLessThanEqual(Long bookerId, LocalDateTime endDate, Pageable page);
+    @Query("select b.booker.id as bookerId, b.item.ownerId as ownerId, b.version as version, " +
+            "b.item.version as itemVersion, b.booker.version as bookerVersion " +
+            "from Booking b " +
+            "where b.id = ?1")
+    Optional<BookingVersion> findVersionById(Long id);
 
-    Page<Booking> findByBookerIdAndStartDateGreaterThanEqual(Long bookerId, LocalDateTime startDate, Pageable page);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdIn(Collection<Long> ids);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable page);
+    // Бронирования вещей в статусе status, пересекающие полуинтервал [startDate, endDate)
+    List<Booking> findByItemIdInAndStatusAndStartDateLessThanAndEndDateGreaterThan(Collection<Long> itemIds,
+                                                                                  BookingStatus status,
+                                                                                  LocalDateTime endDate,
+                                                                                  LocalDateTime startDate);
 
+    // Списки бронирований заданы запросами, а не именами методов: производный запрос фильтровал бы по столбцу
+    // users.id из соединения графа сущности, а не по bookings.booker_id, и H2 не использовал бы индекс по booker_id
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1")
+    Slice<Booking> findByBookerId(Long bookerId, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.endDate <= ?2")
+    Slice<Booking> findByBookerIdAndEndDateLessThanEqual(Long bookerId, LocalDateTime endDate, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.startDate >= ?2")
+    Slice<Booking> findByBookerIdAndStartDateGreaterThanEqual(Long bookerId, LocalDateTime startDate, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.status = ?2")
+    Slice<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b " +
             "where b.booker.id = ?1 " +
             "and ?2 >= b.startDate " +
             "and ?2 <= b.endDate ")
-    Page<Booking> findByBookerIdAndCurrent(Long bookerId, LocalDateTime dateTime, Pageable page);
+    Slice<Booking> findByBookerIdAndCurrent(Long bookerId, LocalDateTime dateTime, Pageable page);
 
-    Page<Booking> findByItem_OwnerId(Long ownerId, Pageable page);
+    // Вещь соединяется один раз, и по ней же фильтруется владелец: с графом сущности items соединялась бы дважды
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.ownerId = ?1")
+    Slice<Booking> findByItem_OwnerId(Long ownerId, Pageable page);
 
-    Page<Booking> findByItem_OwnerIdAndEndDateLessThanEqual(Long ownerId, LocalDateTime endDate, Pageable page);
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.ownerId = ?1 " +
+            "and b.endDate <= ?2")
+    Slice<Booking> findByItem_OwnerIdAndEndDateLessThanEqual(Long ownerId, LocalDateTime endDate, Pageable page);
 
-    Page<Booking> findByItem_OwnerIdAndStartDateGreaterThanEqual(Long ownerId, LocalDateTime startDate, Pageable page);
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.ownerId = ?1 " +
+            "and b.startDate >= ?2")
+    Slice<Booking> findByItem_OwnerIdAndStartDateGreaterThanEqual(Long ownerId, LocalDateTime startDate, Pageable page);
 
-    Page<Booking> findByItem_OwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable page);
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.ownerId = ?1 " +
+            "and b.status = ?2")
+    Slice<Booking> findByItem_OwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable page);
 
     @Query("select b from Booking b " +
-            "where b.item.ownerId = ?1 " +
+            "join fetch b.item i " +
+            "join fetch b.booker " +
+            "where i.ownerId = ?1 " +
             "and ?2 >= b.startDate " +
             "and ?2 <= b.endDate")
-    Page<Booking> findByItem_OwnerIdAndCurrent(Long ownerId, LocalDateTime dateTime, Pageable page);
+    Slice<Booking> findByItem_OwnerIdAndCurrent(Long ownerId, LocalDateTime dateTime, Pageable page);
 
     Booking findFirst1ByItemIdAndStartDateGreaterThanAndStatusOrderByStartDate(Long itemId, LocalDateTime dateTime, BookingStatus status);
 
     Booking findFirst1ByItemIdAndStartDateLessThanEqualAndStatusOrderByStartDateDesc(Long itemId, LocalDateTime dateTime, BookingStatus status);
 
+    // Для каждой вещи возвращает не более двух бронирований: последнее начавшееся (start_date <= ?2)
+    // и ближайшее будущее (start_date > ?2). Позволяет собрать страницу вещей владельца одним запросом.
+    @Query(value = "select t.id, t.start_date, t.end_date, t.item_id, t.booker_id, t.status, t.version from ( " +
+            "   select b.*, row_number() over ( " +
+            "       partition by b.item_id, case when b.start_date <= ?2 then 0 else 1 end " +
+            "       order by case when b.start_date <= ?2 then b.start_date end desc, b.start_date) as rn " +
+            "   from bookings b " +
+            "   where b.item_id in ?1 " +
+            "   and b.status = ?3) t " +
+            "where t.rn = 1", nativeQuery = true)
+    Collection<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime dateTime, String status);
+
+    // Переводит бронирование в новый статус, только если оно всё ещё в ожидаемом.
+    // Возвращает 0, если статус уже изменил параллельный запрос.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :newStatus, b.version = b.version + 1 " +
+            "where b.id = :id and b.status = :expectedStatus")
+    int updateStatus(@Param("id") Long id, @Param("expectedStatus") BookingStatus expectedStatus,
+                     @Param("newStatus") BookingStatus newStatus);
+
+    // Пересечение полуинтервалов [start, end): бронирования, стыкующиеся по границе, не пересекаются
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = :status " +
+            "and b.startDate < :endDate " +
+            "and b.endDate > :startDate " +
+            "and b.id <> :excludedId")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate, @Param("status") BookingStatus status,
+                              @Param("excludedId") Long excludedId);
 
     Collection<Booking> findByItemIdAndBookerIdAndEndDateLessThanAndStatus(Long itemId, Long bookerId, LocalDateTime dateTime, BookingStatus status);
 
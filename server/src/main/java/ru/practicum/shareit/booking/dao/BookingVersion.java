@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dao;
+
+/**
+ * Версии данных бронирования (BookingDto) для ETag и проверки доступа к нему.
+ */
+public interface BookingVersion {
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerVersion();
+}
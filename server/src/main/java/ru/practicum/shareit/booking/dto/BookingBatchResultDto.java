@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.error.ErrorResponse;
+
+/**
+ * Результат одной записи пакетного запроса: статус и тело, которые вернул бы одиночный запрос.
+ */
+@Data
+@Builder
+public class BookingBatchResultDto {
+    private int status;
+    private BookingDto booking;
+    private ErrorResponse error;
+}
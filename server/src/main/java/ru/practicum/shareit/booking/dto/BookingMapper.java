@@ -7,16 +7,22 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 public class BookingMapper {
+    // Столбцы timestamp хранят микросекунды. Даты усекаются до них сразу, чтобы проверка пересечений в Java
+    // и ограничение в базе сравнивали одни и те же значения, а не наносекунды с округлёнными базой микросекундами
+    private static final ChronoUnit DATE_PRECISION = ChronoUnit.MICROS;
+
     public static BookingDto toBookingDto(Booking booking) {
         return BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStartDate().toString())
                 .end(booking.getEndDate().toString())
                 .booker(UserMapper.toUserDto(booking.getBooker()))
+                .itemId(booking.getItem().getId())
                 .item(ItemMapper.toItemDto(booking.getItem()))
                 .status(booking.getStatus())
                 .build();
@@ -43,8 +49,8 @@ public class BookingMapper {
     public static Booking toBooking(BookingDto bookingDto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setId(bookingDto.getId());
-        booking.setStartDate(LocalDateTime.parse(bookingDto.getStart()));
-        booking.setEndDate(LocalDateTime.parse(bookingDto.getEnd()));
+        booking.setStartDate(LocalDateTime.parse(bookingDto.getStart()).truncatedTo(DATE_PRECISION));
+        booking.setEndDate(LocalDateTime.parse(bookingDto.getEnd()).truncatedTo(DATE_PRECISION));
         booking.setItem(item);
         booking.setBooker(booker);
         return booking;
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.util.BatchResult;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingDto bookingDto);
 
+    List<BatchResult<BookingDto>> createBookings(Long userId, List<BookingDto> bookingDtos);
+
     BookingDto approveBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BatchResult<BookingDto>> approveBookings(Long userId, List<BookingApprovalDto> approvals);
+
     BookingDto getBooking(Long userId, Long bookingId);
 
+    String getBookingEtag(Long userId, Long bookingId);
+
     Collection<BookingDto> getAllBookings(Long userId, BookingState bookingState, Integer from, Integer size);
 
     Collection<BookingDto> getAllBookingsByOwner(Long userId, BookingState bookingState, Integer from, Integer size);
+
+    CursorPage<BookingDto> getAllBookingsAfter(Long userId, BookingState bookingState, String after, Integer size);
+
+    CursorPage<BookingDto> getAllBookingsByOwnerAfter(Long userId, BookingState bookingState, String after, Integer size);
 }
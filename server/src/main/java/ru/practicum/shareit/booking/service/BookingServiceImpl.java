@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,8 +11,11 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingVersion;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.WrongBookingUserException;
 import ru.practicum.shareit.item.Item;
@@ -21,11 +26,24 @@ import ru.practicum.shareit.item.exception.WrongItemOwnerException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.BatchResult;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PageGetter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -44,16 +62,13 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(()
                 -> new ItemNotFoundException("Вещь с ID = " + bookingDto.getItemId() + " не найдена."));
 
-        //Проверяем, что вещь доступна
-        if (!item.getIsAvailable()) {
-            throw new ItemNotAvailableException("Вещь с ID = " + bookingDto.getItemId() + " недоступна");
-        }
-        if (userId.equals(item.getOwnerId())) {
-            throw new WrongBookingUserException("Владелец вещи не может забронировать свою вещь");
-        }
+        checkItemBookable(userId, item);
 
         Booking bookingToCreate = BookingMapper.toBooking(bookingDto, item, booker);
 
+        //Проверяем, что на этот период нет согласованных бронирований
+        checkNoApprovedOverlap(bookingToCreate);
+
         bookingToCreate.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(bookingToCreate);
@@ -61,11 +76,55 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(savedBooking);
     }
 
+    @Transactional
+    @Override
+    public List<BatchResult<BookingDto>> createBookings(Long userId, List<BookingDto> bookingDtos) {
+        //Пользователь и вещи загружаются один раз на весь пакет
+        User booker = UserMapper.toUser(userService.getUserById(userId));
+        Set<Long> itemIds = bookingDtos.stream().map(BookingDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookingsToCreate = new ArrayList<>();
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            bookingsToCreate.add(item == null ? null : BookingMapper.toBooking(bookingDto, item, booker));
+        }
+        Map<Long, List<Booking>> approvedBookings = findApprovedOverlapping(bookingsToCreate);
+
+        List<BatchResult<BookingDto>> results = new ArrayList<>();
+        List<Booking> validBookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            Booking bookingToCreate = bookingsToCreate.get(i);
+            try {
+                if (bookingToCreate == null) {
+                    throw new ItemNotFoundException("Вещь с ID = " + bookingDtos.get(i).getItemId() + " не найдена.");
+                }
+                checkItemBookable(userId, bookingToCreate.getItem());
+                checkNoApprovedOverlap(bookingToCreate, approvedBookings);
+                bookingToCreate.setStatus(BookingStatus.WAITING);
+                validBookings.add(bookingToCreate);
+                results.add(null);
+            } catch (RuntimeException e) {
+                results.add(BatchResult.failure(e));
+            }
+        }
+
+        //Допустимые бронирования сохраняются одним saveAll, чтобы Hibernate мог отправить их пакетом JDBC
+        Iterator<Booking> savedBookings = bookingRepository.saveAll(validBookings).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BatchResult.success(BookingMapper.toBookingDto(savedBookings.next())));
+            }
+        }
+        return results;
+    }
+
     @Transactional
     @Override
     public BookingDto approveBooking(Long userId, Long bookingId, Boolean approved) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         Booking bookingToApprove = checkBookingId(bookingId);
 
@@ -78,30 +137,118 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Для согласования бронирования оно должно быть в статусе WAITING");
         }
 
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         if (approved) {
-            bookingToApprove.setStatus(BookingStatus.APPROVED);
-        } else {
-            bookingToApprove.setStatus(BookingStatus.REJECTED);
+            //Блокируем вещь, чтобы параллельные согласования не забронировали её дважды на один период
+            itemRepository.findByIdForUpdate(bookingToApprove.getItem().getId());
+            checkNoApprovedOverlap(bookingToApprove);
+        }
+
+        //Статус меняется только из WAITING: если параллельный запрос успел раньше, обновится 0 строк
+        int updatedCount;
+        try {
+            updatedCount = bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, newStatus);
+        } catch (DataIntegrityViolationException e) {
+            //Ограничение исключения в PostgreSQL срабатывает, если пересечение появилось в обход блокировки
+            throw new BookingConflictException("Вещь с ID = " + bookingToApprove.getItem().getId()
+                    + " уже забронирована на этот период");
+        }
+        if (updatedCount == 0) {
+            throw new IllegalArgumentException("Для согласования бронирования оно должно быть в статусе WAITING");
         }
 
-        return BookingMapper.toBookingDto(bookingRepository.save(bookingToApprove));
+        bookingToApprove.setStatus(newStatus);
+        return BookingMapper.toBookingDto(bookingToApprove);
+    }
+
+    @Transactional
+    @Override
+    public List<BatchResult<BookingDto>> approveBookings(Long userId, List<BookingApprovalDto> approvals) {
+        //Проверяем, что пользователь существует
+        userService.checkUserExists(userId);
+
+        Set<Long> bookingIds = approvals.stream().map(BookingApprovalDto::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        //Блокируем вещи согласуемых бронирований, как и при одиночном согласовании
+        List<Booking> bookingsToApprove = approvals.stream()
+                .filter(approval -> Boolean.TRUE.equals(approval.getApproved()))
+                .map(approval -> bookings.get(approval.getBookingId()))
+                .filter(booking -> booking != null && userId.equals(booking.getItem().getOwnerId()))
+                .collect(Collectors.toList());
+        Set<Long> itemIdsToLock = bookingsToApprove.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        if (!itemIdsToLock.isEmpty()) {
+            itemRepository.findAllByIdForUpdate(itemIdsToLock);
+        }
+        //Согласованные в этом пакете бронирования добавляются сюда же, чтобы пакет не пересекался сам с собой
+        Map<Long, List<Booking>> approvedBookings = findApprovedOverlapping(bookingsToApprove);
+
+        List<BatchResult<BookingDto>> results = new ArrayList<>();
+        for (BookingApprovalDto approval : approvals) {
+            try {
+                Booking bookingToApprove = bookings.get(approval.getBookingId());
+                if (bookingToApprove == null) {
+                    throw new BookingNotFoundException("Бронирование с ID = " + approval.getBookingId()
+                            + " не найдено.");
+                }
+                if (!userId.equals(bookingToApprove.getItem().getOwnerId())) {
+                    throw new WrongItemOwnerException("У вещи с ID = " + bookingToApprove.getItem().getId()
+                            + " другой владелец.");
+                }
+                //Повтор ID в пакете тоже попадает сюда: первая запись уже сменила статус
+                if (bookingToApprove.getStatus() != BookingStatus.WAITING) {
+                    throw new IllegalArgumentException("Для согласования бронирования оно должно быть в статусе WAITING");
+                }
+                if (approval.getApproved() == null) {
+                    throw new IllegalArgumentException("Не указано, согласовано ли бронирование");
+                }
+
+                if (approval.getApproved()) {
+                    checkNoApprovedOverlap(bookingToApprove, approvedBookings);
+                    approvedBookings.computeIfAbsent(bookingToApprove.getItem().getId(), id -> new ArrayList<>())
+                            .add(bookingToApprove);
+                    bookingToApprove.setStatus(BookingStatus.APPROVED);
+                } else {
+                    bookingToApprove.setStatus(BookingStatus.REJECTED);
+                }
+                results.add(BatchResult.success(BookingMapper.toBookingDto(bookingToApprove)));
+            } catch (RuntimeException e) {
+                results.add(BatchResult.failure(e));
+            }
+        }
+
+        //Изменённые статусы уходят пакетом UPDATE с проверкой версии: параллельное изменение отменит весь пакет
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            //Ограничение исключения в PostgreSQL срабатывает, если пересечение появилось в обход блокировки
+            throw new BookingConflictException("Одна из вещей пакета уже забронирована на согласуемый период");
+        }
+        return results;
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingDto getBooking(Long userId, Long bookingId) {
         Booking bookingToGet = checkBookingId(bookingId);
-        Long ownerId = bookingToGet.getItem().getOwnerId();
-        Long bookerId = bookingToGet.getBooker().getId();
+        checkBookingAccess(userId, bookingToGet.getItem().getOwnerId(), bookingToGet.getBooker().getId());
 
-        boolean isAlowed = userId.equals(ownerId) || userId.equals(bookerId);
+        return BookingMapper.toBookingDto(bookingToGet);
+    }
 
-        if (!isAlowed) {
-            throw new WrongBookingUserException("Пользователь с ID = " + userId + " не является владельцем вещи или " +
-                    "автором бронирования");
-        }
+    //ETag без загрузки бронирования, вещи и бронирующего: проверки доступа те же, что в getBooking
+    @Transactional(readOnly = true)
+    @Override
+    public String getBookingEtag(Long userId, Long bookingId) {
+        BookingVersion version = bookingRepository.findVersionById(bookingId).orElseThrow(()
+                -> new BookingNotFoundException("Бронирование с ID = " + bookingId + " не найдено."));
+        checkBookingAccess(userId, version.getOwnerId(), version.getBookerId());
 
-        return BookingMapper.toBookingDto(bookingToGet);
+        return EntityTag.of("booking", bookingId, version.getVersion(), version.getItemVersion(),
+                version.getBookerVersion());
     }
 
     @Transactional(readOnly = true)
@@ -172,6 +319,95 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(bookingList);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingDto> getAllBookingsAfter(Long userId, BookingState bookingState, String after, Integer size) {
+        PageCursor cursor = PageCursor.decodeDated(after);
+        Pageable page = PageGetter.getCursorPageRequest(size, Sort.by("endDate", "id").descending());
+
+        Slice<Booking> bookings = bookingRepository.findByBookerIdAfter(userId, bookingState, LocalDateTime.now(),
+                cursor, page);
+        if (cursor == null && bookings.isEmpty()) {
+            throw new BookingNotFoundException("У пользователя с ID = " + userId + " нет бронирований");
+        }
+        return toCursorPage(bookings);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingDto> getAllBookingsByOwnerAfter(Long userId, BookingState bookingState, String after, Integer size) {
+        PageCursor cursor = PageCursor.decodeDated(after);
+        Pageable page = PageGetter.getCursorPageRequest(size, Sort.by("endDate", "id").descending());
+
+        Slice<Booking> bookings = bookingRepository.findByItemOwnerIdAfter(userId, bookingState, LocalDateTime.now(),
+                cursor, page);
+        if (cursor == null && bookings.isEmpty()) {
+            throw new BookingNotFoundException("Пользователя с ID = " + userId + " не является владельцем вещей");
+        }
+        return toCursorPage(bookings);
+    }
+
+    private CursorPage<BookingDto> toCursorPage(Slice<Booking> bookings) {
+        return CursorPage.from(bookings,
+                booking -> PageCursor.of(booking.getEndDate(), booking.getId()),
+                BookingMapper::toBookingDto);
+    }
+
+    private void checkNoApprovedOverlap(Booking booking) {
+        boolean isOverlapping = bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getStartDate(),
+                booking.getEndDate(), BookingStatus.APPROVED, booking.getId() == null ? 0L : booking.getId());
+        if (isOverlapping) {
+            throw new BookingConflictException("Вещь с ID = " + booking.getItem().getId()
+                    + " уже забронирована на этот период");
+        }
+    }
+
+    private void checkItemBookable(Long userId, Item item) {
+        //Проверяем, что вещь доступна
+        if (!item.getIsAvailable()) {
+            throw new ItemNotAvailableException("Вещь с ID = " + item.getId() + " недоступна");
+        }
+        if (userId.equals(item.getOwnerId())) {
+            throw new WrongBookingUserException("Владелец вещи не может забронировать свою вещь");
+        }
+    }
+
+    //Согласованные бронирования вещей пакета за общий период пакета, сгруппированные по вещам
+    private Map<Long, List<Booking>> findApprovedOverlapping(Collection<Booking> bookings) {
+        List<Booking> knownBookings = bookings.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (knownBookings.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<Long> itemIds = knownBookings.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet());
+        LocalDateTime startDate = knownBookings.stream().map(Booking::getStartDate).min(Comparator.naturalOrder()).get();
+        LocalDateTime endDate = knownBookings.stream().map(Booking::getEndDate).max(Comparator.naturalOrder()).get();
+
+        return bookingRepository.findByItemIdInAndStatusAndStartDateLessThanAndEndDateGreaterThan(itemIds,
+                        BookingStatus.APPROVED, endDate, startDate).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        HashMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private void checkNoApprovedOverlap(Booking booking, Map<Long, List<Booking>> approvedBookings) {
+        boolean isOverlapping = approvedBookings.getOrDefault(booking.getItem().getId(), List.of()).stream()
+                .anyMatch(approved -> !approved.getId().equals(booking.getId())
+                        && approved.getStartDate().isBefore(booking.getEndDate())
+                        && approved.getEndDate().isAfter(booking.getStartDate()));
+        if (isOverlapping) {
+            throw new BookingConflictException("Вещь с ID = " + booking.getItem().getId()
+                    + " уже забронирована на этот период");
+        }
+    }
+
+    private void checkBookingAccess(Long userId, Long ownerId, Long bookerId) {
+        boolean isAlowed = userId.equals(ownerId) || userId.equals(bookerId);
+
+        if (!isAlowed) {
+            throw new WrongBookingUserException("Пользователь с ID = " + userId + " не является владельцем вещи или " +
+                    "автором бронирования");
+        }
+    }
+
     private Booking checkBookingId(Long id) {
         return bookingRepository.findById(id).orElseThrow(()
                 -> new BookingNotFoundException("Бронирование с ID = " + id + " не найдено."));
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+
+    /**
+     * Запись и удаление из кэша откладываются до фиксации транзакции, чтобы в кэш не попадали
+     * изменения, которые затем откатились (например, при нарушении уникальности email).
+     * Статистика Caffeine публикуется в actuator как метрики cache.gets / cache.puts / cache.evictions.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.users.spec}") String usersSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS);
+        caffeineCacheManager.setCacheSpecification(usersSpec);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Заголовки HTTP-кэширования для ответов, которые кэширует шлюз.
+ */
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+    private final Duration listMaxAge;
+
+    public HttpCacheConfig(@Value("${shareit.http-cache.list-max-age}") Duration listMaxAge) {
+        this.listMaxAge = listMaxAge;
+    }
+
+    /**
+     * ETag по содержимому ответа: на If-None-Match с тем же значением отдаётся 304 без тела.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/requests/*");
+        return registration;
+    }
+
+    /**
+     * Поиск и чужие запросы не зависят от текущего времени, поэтому шлюз может отдавать их без обращения
+     * к серверу в течение max-age. Карточка вещи (последнее/следующее бронирование меняется со временем)
+     * перепроверяется по ETag при каждом запросе.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.addCacheMapping(CacheControl.maxAge(listMaxAge).cachePrivate(), "/items/search", "/requests/all");
+        registry.addInterceptor(interceptor);
+    }
+}
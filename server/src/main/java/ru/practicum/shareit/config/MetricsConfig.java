@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.metrics.SqlStatementMetricsFilter;
+
+/**
+ * Метрики для разбора задержки запроса, публикуются в /actuator/prometheus:
+ * <ul>
+ *     <li>http.server.requests — время обработки каждого эндпоинта контроллеров;</li>
+ *     <li>spring.data.repository.invocations — время каждого метода репозиториев (Hibernate и база);</li>
+ *     <li>hikaricp.connections.acquire / usage — ожидание соединения с базой и время его удержания;</li>
+ *     <li>{@value SqlStatementMetricsFilter#STATEMENTS_METRIC} и {@value SqlStatementMetricsFilter#DB_TIME_METRIC} —
+ *     число SQL-запросов и время в базе на HTTP-запрос, с бюджетом {@link SqlBudgetProperties}.</li>
+ * </ul>
+ * Гистограммы первых двух включены в application.properties. SQL-запросы считает слушатель datasource-proxy,
+ * которым Sleuth оборачивает DataSource (spring.sleuth.jdbc.enabled).
+ */
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class MetricsConfig {
+
+    // Первым среди слушателей datasource-proxy: если он отклонит запрос сверх бюджета, другие слушатели
+    // (спаны Sleuth) этот запрос ещё не начали
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SqlStatementCounter sqlStatementCounter(SqlBudgetProperties budget) {
+        return new SqlStatementCounter(budget.getSlowQuery());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                                                                     SqlBudgetProperties budget) {
+        return new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry, budget));
+    }
+}
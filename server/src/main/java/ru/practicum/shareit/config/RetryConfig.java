@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.annotation.AnnotationAwareRetryOperationsInterceptor;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.stream.Collectors;
+
+/**
+ * Повтор методов, помеченных {@link Retryable}. Каждая попытка должна идти в новой транзакции, поэтому перехватчик
+ * повторов ({@link #RETRY_ORDER}) стоит снаружи перехватчика транзакций ({@link #TRANSACTION_ORDER}).
+ * Порядок задан явно: у {@code @EnableRetry} из spring-retry 1.3 нет атрибута order, и с тем же
+ * LOWEST_PRECEDENCE, что у транзакций, вложенность зависела бы от порядка регистрации бинов.
+ * Бины {@link RetryListener} подключаются ко всем повторам.
+ */
+@Configuration
+@EnableTransactionManagement(proxyTargetClass = true, order = RetryConfig.TRANSACTION_ORDER)
+public class RetryConfig {
+    public static final int TRANSACTION_ORDER = Ordered.LOWEST_PRECEDENCE;
+    public static final int RETRY_ORDER = TRANSACTION_ORDER - 1;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor retryAdvisor(BeanFactory beanFactory, ObjectProvider<RetryListener> listeners) {
+        AnnotationAwareRetryOperationsInterceptor interceptor = new AnnotationAwareRetryOperationsInterceptor();
+        interceptor.setBeanFactory(beanFactory);
+        interceptor.setListeners(listeners.orderedStream().collect(Collectors.toList()));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, Retryable.class, true), interceptor);
+        advisor.setOrder(RETRY_ORDER);
+        return advisor;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бюджет SQL на один HTTP-запрос (префикс shareit.sql-budget), см. SqlStatementMetricsFilter.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-budget")
+public class SqlBudgetProperties {
+    // Пакет JDBC (saveAll) считается одним запросом
+    private int maxStatements = 10;
+    // Бюджеты отдельных эндпоинтов по шаблону пути: max-statements-by-uri[/bookings/batch]=12
+    private Map<String, Integer> maxStatementsByUri = new HashMap<>();
+    private Duration maxDbTime = Duration.ofMillis(500);
+    // Запросы дольше этого пишутся в лог сразу, независимо от бюджета
+    private Duration slowQuery = Duration.ofMillis(200);
+    // Тестовый режим: SQL-запрос сверх бюджета не выполняется, HTTP-запрос завершается ошибкой 500.
+    // Без него превышение только пишется в лог и метрику. Время в базе не проверяется — оно зависит от машины
+    private boolean failOnExceed = false;
+
+    public int getMaxStatements(String uri) {
+        return maxStatementsByUri.getOrDefault(uri, maxStatements);
+    }
+}
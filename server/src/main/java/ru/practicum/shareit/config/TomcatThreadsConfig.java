@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим потоков Tomcat: shareit.threads.mode=platform (по умолчанию) — обычный пул потоков
+ * (размер задаётся server.tomcat.threads.max), virtual — отдельный виртуальный поток на каждый запрос.
+ * Виртуальные потоки доступны с Java 21; сборка ориентирована на Java 11, поэтому фабрика
+ * ищется во время выполнения, а на более старой JVM приложение не запустится с понятной ошибкой.
+ */
+@Slf4j
+@Configuration
+public class TomcatThreadsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Запросы Tomcat обрабатываются в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("shareit.threads.mode=virtual требует Java 21 или новее, текущая версия: "
+                    + Runtime.version(), e);
+        }
+    }
+}
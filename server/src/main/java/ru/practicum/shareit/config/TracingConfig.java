@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import brave.handler.SpanHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.tracing.LoggingSpanHandler;
+import ru.practicum.shareit.tracing.TracingAspect;
+
+/**
+ * Трассировка запросов (Spring Cloud Sleuth). Спан HTTP-запроса продолжает трассу шлюза
+ * из заголовков traceparent / b3, внутри него создаются спаны сервисов и репозиториев.
+ * Экспорт подключается бинами Brave {@link SpanHandler}: Zipkin (spring.zipkin.enabled)
+ * или лог (shareit.tracing.logging.enabled).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.logging.enabled", havingValue = "true")
+    public SpanHandler loggingSpanHandler() {
+        return new LoggingSpanHandler();
+    }
+}
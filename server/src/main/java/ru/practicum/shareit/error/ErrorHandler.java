@@ -1,18 +1,39 @@
 package ru.practicum.shareit.error;
 
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.WrongBookingUserException;
 import ru.practicum.shareit.item.exception.*;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.user.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.util.WrongPageParameterException;
+
+import java.lang.reflect.Method;
 
 @RestControllerAdvice
 public class ErrorHandler {
+    private final ExceptionHandlerMethodResolver handlerResolver = new ExceptionHandlerMethodResolver(ErrorHandler.class);
+
+    // Статус и тело ошибки, которые вернул бы одиночный запрос: используется для записей пакетных запросов
+    public ResponseEntity<ErrorResponse> toResponseEntity(final Exception e) {
+        Method handler = handlerResolver.resolveMethod(e);
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(handler, ResponseStatus.class);
+        try {
+            return ResponseEntity.status(status.code()).body((ErrorResponse) handler.invoke(this, e));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Не удалось обработать ошибку записи пакета", ex);
+        }
+    }
+
     @ExceptionHandler()
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleUserNotFound(final UserNotFoundException e) {
@@ -49,6 +70,18 @@ public class ErrorHandler {
         return new ErrorResponse("Вещь не найдена", e.getMessage());
     }
 
+    @ExceptionHandler()
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflict(final BookingConflictException e) {
+        return new ErrorResponse("Вещь уже забронирована", e.getMessage());
+    }
+
+    @ExceptionHandler()
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentUpdate(final ConcurrencyFailureException e) {
+        return new ErrorResponse("Объект изменён параллельным запросом", e.getMessage());
+    }
+
     @ExceptionHandler()
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleIncorrectBookingUser(final WrongBookingUserException e) {
@@ -61,6 +94,12 @@ public class ErrorHandler {
         return new ErrorResponse("Комментарий не может быть добавлен", e.getMessage());
     }
 
+    @ExceptionHandler()
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleWrongPageParameter(final WrongPageParameterException e) {
+        return new ErrorResponse("Некорректные параметры страницы", e.getMessage());
+    }
+
     @ExceptionHandler()
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIncorrectArgument(final IllegalArgumentException e) {
@@ -3,13 +3,18 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.CacheInvalidation;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -20,16 +25,21 @@ public class ItemController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto itemDto) {
+    public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto itemDto,
+                              HttpServletResponse response) {
         log.info("Создать вещь для пользователя ID = {}", userId);
-        return itemService.createItem(userId, itemDto);
+        ItemDto createdItem = itemService.createItem(userId, itemDto);
+        CacheInvalidation.invalidate(response, CacheInvalidation.ITEMS);
+        return createdItem;
     }
 
     @PatchMapping("/{itemId}")
     public ItemDto patchItem(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto itemDto,
-                             @PathVariable long itemId) {
+                             @PathVariable long itemId, HttpServletResponse response) {
         log.info("Обновить вещь ID = {} пользователя ID = {}", itemId, userId);
-        return itemService.patchItem(userId, itemId, itemDto);
+        ItemDto patchedItem = itemService.patchItem(userId, itemId, itemDto);
+        CacheInvalidation.invalidate(response, CacheInvalidation.ITEMS, CacheInvalidation.item(itemId));
+        return patchedItem;
     }
 
     @GetMapping
@@ -40,9 +50,21 @@ public class ItemController {
         return itemService.getItems(userId, from, size);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<List<ItemExtendedDto>> getItemsAfter(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam String after,
+                                                               @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Вывести вещи пользователя ID = {} после позиции {}", userId, after);
+        return itemService.getItemsAfter(userId, after, size).toResponseEntity();
+    }
+
     @GetMapping("/{itemId}")
-    public ItemExtendedDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public ItemExtendedDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                                       WebRequest request) {
         log.info("Вывести вещь ID = {}", itemId);
+        if (request.checkNotModified(itemService.getItemEtag(userId, itemId))) {
+            return null;
+        }
         return itemService.getItemById(userId, itemId);
     }
 
@@ -57,9 +79,11 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     @ResponseStatus(HttpStatus.OK)
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
-                                 @RequestBody CommentDto commentDto) {
+                                 @RequestBody CommentDto commentDto, HttpServletResponse response) {
         log.info("Добавить комментарий к вещи ID = {}", itemId);
-        return itemService.addComment(userId, itemId, commentDto);
+        CommentDto comment = itemService.addComment(userId, itemId, commentDto);
+        CacheInvalidation.invalidate(response, CacheInvalidation.item(itemId));
+        return comment;
     }
 
 }
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Comment;
 
 import java.util.Collection;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Collection<Comment> findAllByItemIdOrderById(long itemId);
+
+    @Query("select c from Comment c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1 " +
+            "order by c.id")
+    Collection<Comment> findAllByItemIdInOrderById(Collection<Long> itemIds);
 }
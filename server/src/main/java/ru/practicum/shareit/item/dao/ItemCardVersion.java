@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Версии данных карточки вещи (ItemExtendedDto) для ETag.
+ */
+public interface ItemCardVersion {
+    Long getOwnerId();
+
+    Long getVersion();
+
+    // Комментарии только добавляются и удаляются вместе с автором, имя автора меняет его версию
+    Long getCommentCount();
+
+    Long getLastCommentId();
+
+    Long getAuthorsVersion();
+
+    // Подтверждённые бронирования одной вещи не пересекаются, поэтому начало однозначно определяет бронирование
+    LocalDateTime getLastBookingStart();
+
+    LocalDateTime getNextBookingStart();
+}
@@ -1,21 +1,54 @@
 package ru.practicum.shareit.item.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerId(long userId, Pageable page);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
+    Slice<Item> findByOwnerId(long userId, Pageable page);
 
-    @Query(" select i from Item i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "   or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            "and i.isAvailable = true")
-    Page<Item> search(String text, Pageable page);
+    Slice<Item> findByOwnerIdAndIdGreaterThan(long userId, long id, Pageable page);
 
     Collection<Item> findByRequestId(long requestId);
+
+    Collection<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    // Блокирует строку вещи до конца транзакции: согласование бронирований одной вещи
+    // выполняется последовательно, бронирования разных вещей друг друга не ждут.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long id);
+
+    // Блокировки берутся в порядке ID, чтобы пакетные согласования не взаимоблокировались
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> ids);
+
+    // Одна строка вместо загрузки вещи, комментариев с авторами и ближайших бронирований
+    @Query(value = "select i.owner_id as \"ownerId\", i.version as \"version\", " +
+            "c.comment_count as \"commentCount\", c.last_comment_id as \"lastCommentId\", " +
+            "c.authors_version as \"authorsVersion\", " +
+            "(select max(b.start_date) from bookings b " +
+            "   where b.item_id = i.id and b.status = :status and b.start_date <= :now) as \"lastBookingStart\", " +
+            "(select min(b.start_date) from bookings b " +
+            "   where b.item_id = i.id and b.status = :status and b.start_date > :now) as \"nextBookingStart\" " +
+            "from items i " +
+            "left join (select c.item_id, count(*) as comment_count, max(c.id) as last_comment_id, " +
+            "       sum(u.version) as authors_version " +
+            "   from comments c join users u on u.id = c.author_id " +
+            "   where c.item_id = :itemId " +
+            "   group by c.item_id) c on c.item_id = i.id " +
+            "where i.id = :itemId", nativeQuery = true)
+    Optional<ItemCardVersion> findCardVersion(@Param("itemId") long itemId, @Param("now") LocalDateTime now,
+                                              @Param("status") String status);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+    List<Item> search(String text, Pageable page);
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * На PostgreSQL запрос обслуживается триграммными GIN-индексами (см. миграцию V4)
+ * и сортируется по схожести с текстом запроса, на остальных базах (H2 в тестах) используется
+ * обычный LIKE с сортировкой по ID.
+ * Текст короче трёх символов не содержит ни одной триграммы: такой поиск не использует индексы и читает таблицу
+ * целиком, но находит те же вещи, в том числе по подстроке в середине слова.
+ */
+@RequiredArgsConstructor
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final String RANKED_SEARCH = "select i.* from items i " +
+            "where (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "   or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and i.is_available = true " +
+            "order by greatest(similarity(i.name, :text), similarity(i.description, :text)) desc, i.id";
+
+    private static final String PLAIN_SEARCH = "select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "   or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and i.isAvailable = true " +
+            "order by i.id";
+
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+
+    private volatile Boolean postgres;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, Pageable page) {
+        Query query = isPostgres()
+                ? entityManager.createNativeQuery(RANKED_SEARCH, Item.class)
+                : entityManager.createQuery(PLAIN_SEARCH, Item.class);
+
+        return query.setParameter("text", text)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize())
+                .getResultList();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                postgres = "PostgreSQL".equalsIgnoreCase(productName);
+            } catch (MetaDataAccessException e) {
+                postgres = false;
+            }
+        }
+        return postgres;
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.Collection;
 
@@ -13,8 +14,12 @@ public interface ItemService {
 
     Collection<ItemExtendedDto> getItems(Long userId, Integer from, Integer size);
 
+    CursorPage<ItemExtendedDto> getItemsAfter(Long userId, String after, Integer size);
+
     ItemExtendedDto getItemById(Long userId, Long itemId);
 
+    String getItemEtag(Long userId, Long itemId);
+
     Collection<ItemDto> searchItem(String text, Integer from, Integer size);
 
     CommentDto addComment(Long userId, long itemId, CommentDto commentDto);
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
@@ -12,6 +16,7 @@ import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemCardVersion;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.CommentNotAvailableException;
@@ -20,11 +25,17 @@ import ru.practicum.shareit.item.exception.WrongItemOwnerException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PageGetter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -41,24 +52,26 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         Item item = ItemMapper.toItem(itemDto);
         item.setOwnerId(userId);
         return ItemMapper.toItemDto(itemRepository.save(item));
     }
 
+    //Параллельное изменение той же вещи обнаруживается по @Version; повтор перечитывает вещь и применяет изменения заново.
+    //Каждая попытка идёт в своей транзакции: перехватчик повторов стоит снаружи транзакционного, см. RetryConfig
+    @Retryable(value = ConcurrencyFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 10, multiplier = 2))
     @Transactional
     @Override
     public ItemDto patchItem(Long userId, Long itemId, ItemDto itemDto) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
-        Item oldItem = checkItemId(itemId);
-        if (!userId.equals(oldItem.getOwnerId())) {
+        userService.checkUserExists(userId);
+        Item itemToUpdate = checkItemId(itemId);
+        if (!userId.equals(itemToUpdate.getOwnerId())) {
             throw new WrongItemOwnerException("У вещи с ID = " + itemId + " другой владелец.");
         }
 
-        Item itemToUpdate = checkItemId(itemId);
         if (itemDto.getName() != null) {
             itemToUpdate.setName(itemDto.getName());
         }
@@ -77,10 +90,18 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable page = PageGetter.getPageRequest(from, size, Sort.by("id").ascending());
 
-        return itemRepository.findByOwnerId(userId, page).getContent().stream()
-                .map(this::getItemLastAndNextBooking)
-                .map(this::getComments)
-                .collect(Collectors.toList());
+        return toItemExtendedDtos(itemRepository.findByOwnerId(userId, page).getContent());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<ItemExtendedDto> getItemsAfter(Long userId, String after, Integer size) {
+        PageCursor cursor = PageCursor.decodeId(after);
+        Pageable page = PageGetter.getCursorPageRequest(size, Sort.by("id").ascending());
+
+        Slice<Item> items = itemRepository.findByOwnerIdAndIdGreaterThan(userId, cursor == null ? 0 : cursor.getId(), page);
+
+        return CursorPage.from(items, item -> PageCursor.of(item.getId()), this::toItemExtendedDtos);
     }
 
     @Transactional(readOnly = true)
@@ -96,6 +117,20 @@ public class ItemServiceImpl implements ItemService {
         return getComments(itemExtendedDto);
     }
 
+    //ETag карточки вещи одним запросом, без сборки ItemExtendedDto
+    @Transactional(readOnly = true)
+    @Override
+    public String getItemEtag(Long userId, Long itemId) {
+        ItemCardVersion version = itemRepository.findCardVersion(itemId, LocalDateTime.now(), BookingStatus.APPROVED.name())
+                .orElseThrow(() -> new ItemNotFoundException("Вещь с ID = " + itemId + " не найдена."));
+        //Последнее и следующее бронирования видит только владелец
+        boolean isOwner = userId.equals(version.getOwnerId());
+
+        return EntityTag.of("item", itemId, version.getVersion(), version.getCommentCount(),
+                version.getLastCommentId(), version.getAuthorsVersion(),
+                isOwner ? version.getLastBookingStart() : null, isOwner ? version.getNextBookingStart() : null);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> searchItem(String text, Integer from, Integer size) {
@@ -105,7 +140,7 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable page = PageGetter.getPageRequest(from, size, Sort.unsorted());
 
-        return itemRepository.search(text, page).getContent().stream()
+        return itemRepository.search(text, page).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -146,6 +181,32 @@ public class ItemServiceImpl implements ItemService {
         return itemExtendedDto;
     }
 
+    private List<ItemExtendedDto> toItemExtendedDtos(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ItemExtendedDto> dtoById = new LinkedHashMap<>();
+        items.forEach(item -> dtoById.put(item.getId(), ItemMapper.toItemOwnerDto(item)));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findLastAndNextByItemIdIn(dtoById.keySet(), now, BookingStatus.APPROVED.name())
+                .forEach(booking -> {
+                    ItemExtendedDto dto = dtoById.get(booking.getItem().getId());
+                    if (booking.getStartDate().isAfter(now)) {
+                        dto.setNextBooking(BookingMapper.toBookingForItemDto(booking));
+                    } else {
+                        dto.setLastBooking(BookingMapper.toBookingForItemDto(booking));
+                    }
+                });
+
+        commentRepository.findAllByItemIdInOrderById(dtoById.keySet())
+                .forEach(comment -> dtoById.get(comment.getItem().getId()).getComments()
+                        .add(CommentMapper.toCommentDto(comment)));
+
+        return new ArrayList<>(dtoById.values());
+    }
+
     private ItemExtendedDto getComments(ItemExtendedDto dto) {
         commentRepository.findAllByItemIdOrderById(dto.getId())
                 .forEach(comment -> dto.getComments().add(CommentMapper.toCommentDto(comment)));
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Считает SQL-запросы и время их выполнения в текущем потоке между {@link #start()} и {@link #stop()},
+ * вне этих вызовов запросы не считаются. Пакет JDBC считается одним запросом: он уходит в базу одним обращением.
+ * Запросы дольше slowQuery пишутся в лог всегда. Если подсчёт начат с пределом, запрос сверх него
+ * не выполняется: {@link #beforeQuery} бросает {@link SqlBudgetExceededException}.
+ * Слушатель datasource-proxy: Sleuth оборачивает DataSource и подключает все бины {@link QueryExecutionListener},
+ * см. {@link ru.practicum.shareit.config.MetricsConfig}.
+ */
+@Slf4j
+public class SqlStatementCounter implements QueryExecutionListener {
+    private static final ThreadLocal<SqlStatements> STATEMENTS = new ThreadLocal<>();
+    private static final String START_NANOS = SqlStatementCounter.class.getName() + ".start";
+
+    private final long slowQueryNanos;
+
+    public SqlStatementCounter(Duration slowQuery) {
+        this.slowQueryNanos = slowQuery.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatements statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.checkNext(toSql(execInfo, queryInfoList));
+        }
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+        SqlStatements statements = STATEMENTS.get();
+        if (statements == null && nanos < slowQueryNanos) {
+            return;
+        }
+
+        String sql = toSql(execInfo, queryInfoList);
+        if (nanos >= slowQueryNanos) {
+            log.warn("Медленный SQL-запрос, {} мс: {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql);
+        }
+        if (statements != null) {
+            statements.add(sql, nanos);
+        }
+    }
+
+    public static void start() {
+        STATEMENTS.set(new SqlStatements());
+    }
+
+    /**
+     * Начинает подсчёт с пределом числа запросов. Предел читается перед каждым запросом: он может зависеть
+     * от того, что станет известно позже начала подсчёта, например от шаблона пути эндпоинта.
+     */
+    public static void start(IntSupplier maxStatements) {
+        STATEMENTS.set(new SqlStatements(maxStatements));
+    }
+
+    /**
+     * Завершает подсчёт в текущем потоке и возвращает запросы с момента {@link #start()}.
+     */
+    public static SqlStatements stop() {
+        SqlStatements statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements : new SqlStatements();
+    }
+
+    private static String toSql(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        return execInfo.isBatch() ? sql + " [пакет из " + execInfo.getBatchSize() + "]" : sql;
+    }
+}
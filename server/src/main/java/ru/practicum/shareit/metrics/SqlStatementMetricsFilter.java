@@ -0,0 +1,96 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.config.SqlBudgetProperties;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Число SQL-запросов и время в базе на каждый HTTP-запрос. Теги те же, что у http.server.requests
+ * (method, uri, outcome), поэтому метрики сопоставляются по эндпоинту.
+ * Запрос сверх бюджета {@link SqlBudgetProperties} пишется в лог вместе с текстами SQL и считается
+ * в {@value #BUDGET_EXCEEDED_METRIC}. В тестовом режиме (fail-on-exceed) лишний SQL-запрос не выполняется:
+ * {@link SqlStatementCounter} бросает {@link SqlBudgetExceededException} до его отправки в базу, то есть до записи
+ * ответа, и клиент получает 500, а N+1 в эндпоинте валит сборку.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_METRIC = "shareit.http.server.sql.statements";
+    public static final String DB_TIME_METRIC = "shareit.http.server.db.time";
+    public static final String BUDGET_EXCEEDED_METRIC = "shareit.http.server.sql.budget.exceeded";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (budget.isFailOnExceed()) {
+            // Шаблон пути известен только после выбора обработчика, поэтому предел вычисляется перед каждым запросом
+            SqlStatementCounter.start(() -> budget.getMaxStatements(WebMvcTags.uri(request, null).getValue()));
+        } else {
+            SqlStatementCounter.start();
+        }
+        SqlStatements statements;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = SqlStatementCounter.stop();
+        }
+
+        Tag uri = WebMvcTags.uri(request, response);
+        Tags tags = Tags.of(WebMvcTags.method(request), uri, WebMvcTags.outcome(response));
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Число SQL-запросов на один HTTP-запрос")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        Timer.builder(DB_TIME_METRIC)
+                .description("Время выполнения SQL-запросов за один HTTP-запрос")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry)
+                .record(statements.getNanos(), TimeUnit.NANOSECONDS);
+
+        checkBudget(request, uri.getValue(), tags, statements);
+    }
+
+    private void checkBudget(HttpServletRequest request, String uri, Tags tags, SqlStatements statements) {
+        int maxStatements = budget.getMaxStatements(uri);
+        boolean tooManyStatements = statements.getCount() > maxStatements || statements.getRejectedSql() != null;
+        if (!tooManyStatements && statements.getNanos() <= budget.getMaxDbTime().toNanos()) {
+            return;
+        }
+
+        Counter.builder(BUDGET_EXCEEDED_METRIC)
+                .description("Число HTTP-запросов сверх бюджета SQL")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment();
+        String message = String.format("Запрос %s %s превысил бюджет SQL: %d запросов (бюджет %d), %d мс в базе (бюджет %d мс):%s",
+                request.getMethod(), request.getRequestURI(), statements.getCount(), maxStatements,
+                statements.getMillis(), budget.getMaxDbTime().toMillis(), statements.describe());
+        log.warn(message);
+    }
+}
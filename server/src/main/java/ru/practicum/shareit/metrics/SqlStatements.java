@@ -0,0 +1,84 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * SQL-запросы одного HTTP-запроса: число, суммарное время в базе и тексты для лога превышения бюджета.
+ */
+@Getter
+public class SqlStatements {
+    // Тексты хранятся только для первых запросов, чтобы N+1 на больших страницах не раздувал память
+    private static final int MAX_RECORDED = 50;
+
+    private int count;
+    private long nanos;
+    private final List<String> sql = new ArrayList<>();
+    private final List<Long> sqlNanos = new ArrayList<>();
+    // Предел числа запросов; null — запросы не ограничиваются, превышение только пишется в лог
+    @Getter(AccessLevel.NONE)
+    private final IntSupplier maxStatements;
+    // Запрос, не выполненный из-за превышения предела
+    private String rejectedSql;
+
+    SqlStatements() {
+        this(null);
+    }
+
+    SqlStatements(IntSupplier maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    /**
+     * Проверяет, что следующий запрос укладывается в предел, до его выполнения.
+     *
+     * @throws SqlBudgetExceededException если запрос вышел бы за предел
+     */
+    void checkNext(String statement) {
+        if (maxStatements == null) {
+            return;
+        }
+
+        int limit = maxStatements.getAsInt();
+        if (count + 1 > limit) {
+            rejectedSql = statement;
+            throw new SqlBudgetExceededException(String.format(
+                    "SQL-запрос %d превысил бюджет SQL (%d запросов): %s", count + 1, limit, statement));
+        }
+    }
+
+    void add(String statement, long statementNanos) {
+        count++;
+        nanos += statementNanos;
+        if (sql.size() < MAX_RECORDED) {
+            sql.add(statement);
+            sqlNanos.add(statementNanos);
+        }
+    }
+
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Тексты запросов по одному на строку, с временем выполнения.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < sql.size(); i++) {
+            description.append(String.format("%n  %8.3f мс  %s", sqlNanos.get(i) / 1_000_000.0, sql.get(i)));
+        }
+        if (count > sql.size()) {
+            description.append(String.format("%n  ... ещё %d", count - sql.size()));
+        }
+        if (rejectedSql != null) {
+            description.append(String.format("%n  не выполнен  %s", rejectedSql));
+        }
+        return description.toString();
+    }
+}
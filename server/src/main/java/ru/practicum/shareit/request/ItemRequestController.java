@@ -3,11 +3,16 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.CacheInvalidation;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -19,9 +24,12 @@ public class ItemRequestController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemRequestDto createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestBody ItemRequestDto itemRequestDto) {
+                                            @RequestBody ItemRequestDto itemRequestDto,
+                                            HttpServletResponse response) {
         log.info("Создать запрос на вещь \"{}\" для пользователя ID = {}", itemRequestDto.getDescription(), userId);
-        return itemRequestService.createItemRequest(userId, itemRequestDto);
+        ItemRequestDto createdRequest = itemRequestService.createItemRequest(userId, itemRequestDto);
+        CacheInvalidation.invalidate(response, CacheInvalidation.REQUESTS);
+        return createdRequest;
     }
 
     @GetMapping
@@ -32,8 +40,11 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long requestId) {
+                                             @PathVariable Long requestId, WebRequest request) {
         log.info("Получить запрос на вещь ID = {} для пользователя ID = {}", requestId, userId);
+        if (request.checkNotModified(itemRequestService.getItemRequestEtag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(userId, requestId);
     }
 
@@ -44,4 +55,12 @@ public class ItemRequestController {
         log.info("Получить все запросы на вещи для пользователя ID = {} с пагинацией", userId);
         return itemRequestService.getAllItemRequests(userId, from, size);
     }
+
+    @GetMapping(path = "/all", params = "after")
+    public ResponseEntity<List<ItemRequestDto>> getAllItemRequestsAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                        @RequestParam String after,
+                                                                        @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Получить все запросы на вещи для пользователя ID = {} после позиции {}", userId, after);
+        return itemRequestService.getAllItemRequestsAfter(userId, after, size).toResponseEntity();
+    }
 }
@@ -1,16 +1,31 @@
 package ru.practicum.shareit.request.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     Collection<ItemRequest> findAllByRequestorIdOrderByCreatedDateDesc(long id);
 
-    Page<ItemRequest> findAllByRequestorIdNot(long id, Pageable page);
+    Slice<ItemRequest> findAllByRequestorIdNot(long id, Pageable page);
+
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 " +
+            "and (r.createdDate < ?2 or (r.createdDate = ?2 and r.id < ?3))")
+    Slice<ItemRequest> findAllByRequestorIdNotAfter(long id, LocalDateTime createdDate, long requestId, Pageable page);
+
+    @Query("select count(i.id) as itemCount, max(i.id) as lastItemId, sum(i.version) as itemsVersion " +
+            "from ItemRequest r " +
+            "left join Item i on i.requestId = r.id " +
+            "where r.id = ?1 " +
+            "group by r.id")
+    Optional<ItemRequestVersion> findVersionById(long id);
 
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dao;
+
+/**
+ * Версии данных запроса на вещь (ItemRequestDto) для ETag. Сам запрос не изменяется,
+ * меняется только список вещей, созданных в ответ на него.
+ */
+public interface ItemRequestVersion {
+    Long getItemCount();
+
+    Long getLastItemId();
+
+    Long getItemsVersion();
+}
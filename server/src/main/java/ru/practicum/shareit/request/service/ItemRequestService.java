@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.Collection;
 
@@ -9,7 +10,11 @@ public interface ItemRequestService {
 
     ItemRequestDto getItemRequestById(Long userId, Long requestId);
 
+    String getItemRequestEtag(Long userId, Long requestId);
+
     Collection<ItemRequestDto> getItemRequests(Long userId);
 
     Collection<ItemRequestDto> getAllItemRequests(Long userId, Integer from, Integer size);
+
+    CursorPage<ItemRequestDto> getAllItemRequestsAfter(Long userId, String after, Integer size);
 }
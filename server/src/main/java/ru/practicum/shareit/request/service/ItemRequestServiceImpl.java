@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,15 +11,24 @@ import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dao.ItemRequestVersion;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.EntityTag;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.util.PageGetter;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -44,7 +54,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public ItemRequestDto getItemRequestById(Long userId, Long requestId) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         ItemRequest itemRequest = checkItemRequestId(requestId);
 
@@ -57,28 +67,36 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getItemRequestEtag(Long userId, Long requestId) {
+        //Проверяем, что пользователь существует
+        userService.checkUserExists(userId);
+
+        ItemRequestVersion version = itemRequestRepository.findVersionById(requestId).orElseThrow(()
+                -> new ItemRequestNotFoundException("Запрос на  вещь с ID = " + requestId + " не найден."));
+
+        return EntityTag.of("request", requestId, version.getItemCount(), version.getLastItemId(),
+                version.getItemsVersion());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> getItemRequests(Long userId) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         Collection<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdOrderByCreatedDateDesc(userId);
         Collection<ItemRequestDto> itemRequestDtos = ItemRequestMapper.toItemRequestDto(itemRequests);
 
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            Collection<Item> items = itemRepository.findByRequestId(itemRequestDto.getId());
-            itemRequestDto.setItems(ItemMapper.toItemDto(items));
-        }
-
-        return itemRequestDtos;
+        return setItems(itemRequestDtos);
     }
 
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemRequestDto> getAllItemRequests(Long userId, Integer from, Integer size) {
         //Проверяем, что пользователь существует
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         Pageable page = PageGetter.getPageRequest(from, size, Sort.by("createdDate").descending());
 
@@ -86,11 +104,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         Collection<ItemRequestDto> itemRequestDtos = ItemRequestMapper.toItemRequestDto(itemRequests);
 
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            Collection<Item> items = itemRepository.findByRequestId(itemRequestDto.getId());
-            itemRequestDto.setItems(ItemMapper.toItemDto(items));
+        return setItems(itemRequestDtos);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<ItemRequestDto> getAllItemRequestsAfter(Long userId, String after, Integer size) {
+        //Проверяем, что пользователь существует
+        userService.checkUserExists(userId);
+
+        PageCursor cursor = PageCursor.decodeDated(after);
+        Pageable page = PageGetter.getCursorPageRequest(size, Sort.by("createdDate", "id").descending());
+
+        Slice<ItemRequest> itemRequests = cursor == null
+                ? itemRequestRepository.findAllByRequestorIdNot(userId, page)
+                : itemRequestRepository.findAllByRequestorIdNotAfter(userId, cursor.getDate(), cursor.getId(), page);
+
+        return CursorPage.from(itemRequests,
+                itemRequest -> PageCursor.of(itemRequest.getCreatedDate(), itemRequest.getId()),
+                content -> {
+                    List<ItemRequestDto> itemRequestDtos = ItemRequestMapper.toItemRequestDto(content);
+                    setItems(itemRequestDtos);
+                    return itemRequestDtos;
+                });
+    }
+
+    private Collection<ItemRequestDto> setItems(Collection<ItemRequestDto> itemRequestDtos) {
+        if (itemRequestDtos.isEmpty()) {
+            return itemRequestDtos;
         }
 
+        Set<Long> requestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<Item>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+
+        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
+            itemRequestDto.setItems(ItemMapper.toItemDto(
+                    itemsByRequestId.getOrDefault(itemRequestDto.getId(), Collections.emptyList())));
+        }
         return itemRequestDtos;
     }
 
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Экспорт завершённых спанов в лог для локальной отладки, без Zipkin.
+ * Спаны одного запроса на шлюзе и сервере связаны общим traceId.
+ */
+@Slf4j
+public class LoggingSpanHandler extends SpanHandler {
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.FINISHED) {
+            log.info("Спан {} ({}) traceId = {}, spanId = {}, parentId = {}, {} мкс{}",
+                    span.name(), span.kind() != null ? span.kind() : "LOCAL",
+                    context.traceIdString(), context.spanIdString(), context.parentIdString(),
+                    span.finishTimestamp() - span.startTimestamp(),
+                    span.error() != null ? ", ошибка: " + span.error() : "");
+        }
+        return true;
+    }
+}
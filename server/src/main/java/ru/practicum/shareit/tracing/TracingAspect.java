@@ -0,0 +1,54 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Дочерние спаны вокруг вызовов сервисов и репозиториев, например BookingServiceImpl.createBooking
+ * и BookingRepository.findByIdIn. Спан HTTP-запроса создаёт Sleuth, поэтому вне запроса
+ * (миграции, бенчмарки) спаны не создаются. Аспект внешний по отношению к транзакции,
+ * и спан сервиса включает фиксацию.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(ClassUtils.getUserClass(joinPoint.getTarget()), joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Цель — прокси Spring Data, имя берём у интерфейса репозитория, а не у CrudRepository
+        return trace(AopProxyUtils.proxiedUserInterfaces(joinPoint.getTarget())[0], joinPoint);
+    }
+
+    private Object trace(Class<?> type, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+
+        Span span = tracer.nextSpan()
+                .name(type.getSimpleName() + "." + joinPoint.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
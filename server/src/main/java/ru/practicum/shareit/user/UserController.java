@@ -6,7 +6,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CacheInvalidation;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
 
 @RestController
@@ -36,14 +38,18 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public UserDto patchUser(@RequestBody UserDto userDto, @PathVariable long userId) {
+    public UserDto patchUser(@RequestBody UserDto userDto, @PathVariable long userId, HttpServletResponse response) {
         log.info("Обновляем пользователя ID = {}, новые значения {}", userId, userDto);
-        return userService.patchUser(userId, userDto);
+        UserDto patchedUser = userService.patchUser(userId, userDto);
+        //Имя пользователя выводится в комментариях и бронированиях, поэтому сбрасываем весь кэш шлюза
+        CacheInvalidation.invalidate(response, CacheInvalidation.ALL);
+        return patchedUser;
     }
 
     @DeleteMapping("/{userId}")
-    public void removeUser(@PathVariable long userId) {
+    public void removeUser(@PathVariable long userId, HttpServletResponse response) {
         log.info("Обновляем пользователя c Id: {}", userId);
         userService.removeUser(userId);
+        CacheInvalidation.invalidate(response, CacheInvalidation.ALL);
     }
 }
@@ -10,6 +10,11 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    /**
+     * Проверяет, что пользователь существует, не загружая его целиком.
+     */
+    void checkUserExists(Long userId);
+
     UserDto createUser(UserDto userDto);
 
     UserDto patchUser(Long userId, UserDto userDto);
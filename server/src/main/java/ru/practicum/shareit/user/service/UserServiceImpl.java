@@ -2,15 +2,21 @@ package ru.practicum.shareit.user.service;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.util.TransactionCheckedIds;
 
 import java.util.Collection;
 import java.util.stream.Collectors;
@@ -21,6 +27,8 @@ public class UserServiceImpl implements UserService {
 
     @NonNull
     private final UserRepository userRepository;
+    @NonNull
+    private final CacheManager cacheManager;
 
     @Transactional(readOnly = true)
     @Override
@@ -30,24 +38,42 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
     @Transactional(readOnly = true)
     @Override
     public UserDto getUserById(Long userId) {
         return UserMapper.toUserDto(checkUserId(userId));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void checkUserExists(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        if (cache != null && cache.get(userId) != null || TransactionCheckedIds.isChecked(User.class, userId)) {
+            return;
+        }
+
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь с ID = " + userId + " не найден.");
+        }
+        TransactionCheckedIds.markChecked(User.class, userId);
+    }
+
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
 
         try {
-            return UserMapper.toUserDto(userRepository.save(user));
+            //С ID из последовательности INSERT откладывается до сброса сессии,
+            //а нарушение уникальности email нужно получить здесь
+            return UserMapper.toUserDto(userRepository.saveAndFlush(user));
         } catch (DataIntegrityViolationException e) {
             throw new EmailAlreadyExistsException(e.getMessage());
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     @Transactional
     @Override
     public UserDto patchUser(Long userId, UserDto userDto) {
@@ -61,6 +87,7 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(userRepository.save(userToUpdate));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     @Transactional
     @Override
     public void removeUser(Long userId) {
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Результат одной записи пакетной операции: значение или исключение, из-за которого запись не обработана.
+ * Остальные записи пакета при этом обрабатываются.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchResult<T> {
+    private final T value;
+    private final RuntimeException error;
+
+    public static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    public static <T> BatchResult<T> failure(RuntimeException error) {
+        return new BatchResult<>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
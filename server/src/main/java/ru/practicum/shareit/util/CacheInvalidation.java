@@ -0,0 +1,27 @@
+package ru.practicum.shareit.util;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Метки кэша ответов шлюза. Изменяющие запросы перечисляют в заголовке {@link #HEADER} метки данных,
+ * которые они затронули, — шлюз сбрасывает закэшированные ответы с этими метками.
+ */
+public class CacheInvalidation {
+    public static final String HEADER = "X-Cache-Invalidate";
+
+    // Все закэшированные ответы
+    public static final String ALL = "*";
+    // Списки вещей: поиск и вещи в ответах на запросы
+    public static final String ITEMS = "items";
+    // Списки запросов на вещи
+    public static final String REQUESTS = "requests";
+
+    // Вещь с бронированиями и комментариями
+    public static String item(long itemId) {
+        return ITEMS + "/" + itemId;
+    }
+
+    public static void invalidate(HttpServletResponse response, String... tags) {
+        response.addHeader(HEADER, String.join(", ", tags));
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util;
+
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница результатов постраничного вывода по ключу и позиция для запроса следующей страницы
+ * (null, если следующей страницы нет).
+ */
+@Data
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public static <E, T> CursorPage<T> from(Slice<E> slice, Function<E, PageCursor> cursorExtractor,
+                                            Function<List<E>, List<T>> mapper) {
+        List<E> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = cursorExtractor.apply(content.get(content.size() - 1)).encode();
+        }
+        return new CursorPage<>(mapper.apply(content), nextCursor);
+    }
+
+    /**
+     * Тело ответа остается массивом, как и при выводе по from/size; позиция следующей страницы
+     * передается в заголовке {@value #NEXT_CURSOR_HEADER}.
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(content);
+    }
+}
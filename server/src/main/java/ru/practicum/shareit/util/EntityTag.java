@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class EntityTag {
+
+    /**
+     * Сильный ETag из версий данных, из которых собран ответ: меняется вместе с любой из них.
+     */
+    public static String of(Object... versions) {
+        String joined = Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-"));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция последнего отданного элемента для постраничного вывода по ключу (keyset pagination).
+ * Клиенту передается в виде непрозрачной строки, полученной из {@link #encode()}.
+ */
+@Getter
+@EqualsAndHashCode
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    private PageCursor(LocalDateTime date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime date, Long id) {
+        return new PageCursor(date, id);
+    }
+
+    /**
+     * Позиция в списке, упорядоченном только по ID. Пустая строка означает запрос первой страницы,
+     * в этом случае возвращается null; позиция с датой из другого списка отклоняется.
+     */
+    public static PageCursor decodeId(String token) {
+        PageCursor cursor = decode(token);
+        if (cursor != null && cursor.date != null) {
+            throw wrongCursor(token);
+        }
+        return cursor;
+    }
+
+    /**
+     * Позиция в списке, упорядоченном по дате и ID. Пустая строка означает запрос первой страницы,
+     * в этом случае возвращается null; позиция без даты из другого списка отклоняется.
+     */
+    public static PageCursor decodeDated(String token) {
+        PageCursor cursor = decode(token);
+        if (cursor != null && cursor.date == null) {
+            throw wrongCursor(token);
+        }
+        return cursor;
+    }
+
+    private static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return of(Long.parseLong(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw wrongCursor(token);
+        }
+    }
+
+    public String encode() {
+        String value = date == null ? String.valueOf(id) : date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WrongPageParameterException wrongCursor(String token) {
+        return new WrongPageParameterException("after — некорректная позиция страницы: " + token);
+    }
+}
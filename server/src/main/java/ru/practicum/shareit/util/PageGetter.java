@@ -2,8 +2,12 @@ package ru.practicum.shareit.util;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
+import java.util.List;
+
 public class PageGetter {
 
     public static Pageable getPageRequest(int from, int size, Sort sort) {
@@ -17,4 +21,20 @@ public class PageGetter {
 
         return PageRequest.of(from > 0 ? from / size : 0, size, sort);
     }
+
+    public static Pageable getCursorPageRequest(int size, Sort sort) {
+        if (size < 1) {
+            throw new WrongPageParameterException("size — количество элементов для отображения, не может быть меньше 0");
+        }
+
+        return PageRequest.of(0, size, sort);
+    }
+
+    /**
+     * Собирает {@link Slice} из результата запроса, выбравшего на одну запись больше размера страницы.
+     */
+    public static <T> Slice<T> toSlice(List<T> rows, Pageable page) {
+        boolean hasNext = rows.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, page.getPageSize()) : rows, page, hasNext);
+    }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Идентификаторы сущностей, существование которых уже проверено в текущей транзакции.
+ * Вне транзакции ничего не запоминает.
+ */
+public class TransactionCheckedIds {
+
+    public static boolean isChecked(Class<?> type, Long id) {
+        Map<Class<?>, Set<Long>> checkedIds = getCheckedIds(false);
+        return checkedIds != null && checkedIds.getOrDefault(type, Set.of()).contains(id);
+    }
+
+    public static void markChecked(Class<?> type, Long id) {
+        Map<Class<?>, Set<Long>> checkedIds = getCheckedIds(true);
+        if (checkedIds != null) {
+            checkedIds.computeIfAbsent(type, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Class<?>, Set<Long>> getCheckedIds(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        Map<Class<?>, Set<Long>> checkedIds =
+                (Map<Class<?>, Set<Long>>) TransactionSynchronizationManager.getResource(TransactionCheckedIds.class);
+        if (checkedIds == null && create) {
+            checkedIds = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(TransactionCheckedIds.class, checkedIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionCheckedIds.class);
+                }
+            });
+        }
+        return checkedIds;
+    }
+}
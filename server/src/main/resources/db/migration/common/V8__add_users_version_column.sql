@@ -0,0 +1,2 @@
+-- Версия пользователя входит в ETag ответов, где выводится его имя (комментарии, бронирования)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,19 @@
+-- Вторичные индексы под методы репозиториев
+-- BookingRepository.findByBookerId*: фильтр по бронирующему, сортировка по end_date
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_end ON bookings (booker_id, end_date);
+-- BookingRepository.findByBookerIdAndStatus
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_end ON bookings (booker_id, status, end_date);
+-- BookingRepository.findFirst1ByItemId*, findLastAndNextByItemIdIn
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- BookingRepository.findByItem_OwnerId*: соединение с items по item_id, сортировка по end_date
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+-- ItemRepository.findByOwnerId, BookingRepository.findByItem_OwnerId*
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+-- ItemRepository.findByRequestId, findByRequestIdIn
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+-- CommentRepository.findAllByItemIdOrderById, findAllByItemIdInOrderById
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id, id);
+-- ItemRequestRepository.findAllByRequestorIdOrderByCreatedDateDesc
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, create_date);
+-- ItemRequestRepository.findAllByRequestorIdNot: сортировка по create_date
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (create_date);
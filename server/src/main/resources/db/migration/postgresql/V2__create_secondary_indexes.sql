@@ -0,0 +1,52 @@
+-- Вторичные индексы под методы репозиториев
+-- CONCURRENTLY не блокирует запись в таблицы; Flyway выполняет такую миграцию вне транзакции
+-- Прерванный CREATE INDEX CONCURRENTLY оставляет индекс INVALID: запросы его не используют, а IF NOT EXISTS
+-- при повторном запуске пропускает. Упавшая миграция вне транзакции остаётся в истории Flyway как неудачная,
+-- повторный запуск возможен после flyway repair. Тогда остатки переименовываются и удаляются без блокировки записи,
+-- после чего строятся заново; готовые индексы не трогаются
+DO $$
+DECLARE
+    invalid_index RECORD;
+BEGIN
+    FOR invalid_index IN
+        SELECT i.indexrelid::regclass AS index_oid, c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE NOT i.indisvalid
+          AND i.indexrelid IN (SELECT to_regclass(name) FROM unnest(ARRAY[
+              'ix_bookings_booker_end', 'ix_bookings_booker_status_end', 'ix_bookings_item_status_start',
+              'ix_bookings_item_end', 'ix_items_owner', 'ix_items_request', 'ix_comments_item',
+              'ix_requests_requestor_created', 'ix_requests_created']) AS name)
+    LOOP
+        EXECUTE format('ALTER INDEX %s RENAME TO %I', invalid_index.index_oid, invalid_index.relname || '_invalid');
+        RAISE NOTICE 'Индекс % остался INVALID после прерванного построения и будет построен заново', invalid_index.relname;
+    END LOOP;
+END $$;
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_booker_end_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_booker_status_end_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_item_status_start_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_item_end_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_items_owner_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_items_request_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_comments_item_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_requests_requestor_created_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_requests_created_invalid;
+
+-- BookingRepository.findByBookerId*: фильтр по бронирующему, сортировка по end_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_end ON bookings (booker_id, end_date);
+-- BookingRepository.findByBookerIdAndStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_status_end ON bookings (booker_id, status, end_date);
+-- BookingRepository.findFirst1ByItemId*, findLastAndNextByItemIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- BookingRepository.findByItem_OwnerId*: соединение с items по item_id, сортировка по end_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+-- ItemRepository.findByOwnerId, BookingRepository.findByItem_OwnerId*
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+-- ItemRepository.findByRequestId, findByRequestIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_request ON items (request_id);
+-- CommentRepository.findAllByItemIdOrderById, findAllByItemIdInOrderById
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_comments_item ON comments (item_id, id);
+-- ItemRequestRepository.findAllByRequestorIdOrderByCreatedDateDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, create_date);
+-- ItemRequestRepository.findAllByRequestorIdNot: сортировка по create_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_created ON requests (create_date);
@@ -0,0 +1,23 @@
+-- CONCURRENTLY не блокирует запись в таблицу items; Flyway выполняет такую миграцию вне транзакции
+-- Остатки прерванного построения (INVALID) удаляются и строятся заново, как в V2
+DO $$
+DECLARE
+    invalid_index RECORD;
+BEGIN
+    FOR invalid_index IN
+        SELECT i.indexrelid::regclass AS index_oid, c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE NOT i.indisvalid
+          AND i.indexrelid IN (SELECT to_regclass(name)
+                               FROM unnest(ARRAY['ix_items_name_trgm', 'ix_items_description_trgm']) AS name)
+    LOOP
+        EXECUTE format('ALTER INDEX %s RENAME TO %I', invalid_index.index_oid, invalid_index.relname || '_invalid');
+        RAISE NOTICE 'Индекс % остался INVALID после прерванного построения и будет построен заново', invalid_index.relname;
+    END LOOP;
+END $$;
+DROP INDEX CONCURRENTLY IF EXISTS ix_items_name_trgm_invalid;
+DROP INDEX CONCURRENTLY IF EXISTS ix_items_description_trgm_invalid;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_name_trgm ON items USING GIN (upper(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_description_trgm ON items USING GIN (upper(description) gin_trgm_ops);
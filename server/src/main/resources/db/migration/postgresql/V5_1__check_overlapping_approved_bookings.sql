@@ -0,0 +1,36 @@
+-- До V6 согласованные бронирования одной вещи могли пересекаться, и ограничение исключения на такой базе
+-- не создаётся. Какое из пересекающихся бронирований отменить — решение для людей, а не для миграции,
+-- поэтому при найденных пересечениях миграция падает и перечисляет их, данные не меняются.
+-- Периоды полуоткрытые [start, end), как в ограничении V6: бронирование, начинающееся в момент окончания, не пересекается;
+-- бронирования с пустым периодом (start = end) ни с чем не пересекаются.
+--
+-- Восстановление: для каждой пары выбрать бронирование, которое остаётся согласованным, остальные перевести вручную,
+-- например UPDATE bookings SET status = 'REJECTED' WHERE id IN (...), и перезапустить сервер.
+-- Миграция выполняется в транзакции и при ошибке не попадает в историю Flyway, flyway repair не нужен.
+DO $$
+DECLARE
+    overlap_count BIGINT;
+    overlap_list TEXT;
+BEGIN
+    CREATE TEMPORARY TABLE overlapping_bookings ON COMMIT DROP AS
+    SELECT a.item_id, a.id AS booking_id, b.id AS other_booking_id
+    FROM bookings a
+    JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+    WHERE a.status = 'APPROVED' AND b.status = 'APPROVED'
+      AND a.start_date < a.end_date AND b.start_date < b.end_date
+      AND a.start_date < b.end_date AND b.start_date < a.end_date;
+
+    SELECT count(*) INTO overlap_count FROM overlapping_bookings;
+    IF overlap_count = 0 THEN
+        RETURN;
+    END IF;
+
+    -- Сообщение ограничено первыми 100 парами, число всех пар приводится отдельно
+    SELECT string_agg(format('вещь %s: %s и %s', item_id, booking_id, other_booking_id), '; ')
+    INTO overlap_list
+    FROM (SELECT * FROM overlapping_bookings ORDER BY item_id, booking_id, other_booking_id LIMIT 100) first_overlaps;
+
+    RAISE EXCEPTION 'Согласованные бронирования одной вещи пересекаются, пар: %. %', overlap_count, overlap_list
+        USING HINT = 'Оставьте согласованным одно бронирование из каждой пары, остальные отклоните вручную, '
+            || 'см. комментарий в V5_1';
+END $$;
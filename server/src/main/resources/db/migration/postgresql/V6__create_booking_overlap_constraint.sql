@@ -0,0 +1,17 @@
+-- Согласованные бронирования одной вещи не должны пересекаться по времени.
+-- tsrange по умолчанию полуоткрытый [start, end), как и проверка в BookingRepository.existsOverlapping.
+-- Существующие пересечения находит V5.1: пока их не разрешат вручную, миграции до V6 не доходят.
+--
+-- Исключение из правила онлайн-миграций (см. V2, V4): ADD CONSTRAINT ... EXCLUDE держит ACCESS EXCLUSIVE
+-- на bookings всё время построения GiST-индекса, чтение и запись бронирований ждут его завершения.
+-- Обойти это нельзя: ограничение исключения не добавляется как NOT VALID, а индекс под него не строится CONCURRENTLY.
+-- Блокировка принята сознательно: индекс строится один раз, время пропорционально числу строк bookings.
+-- Чтобы миграция не встала в очередь за долгой транзакцией и не остановила все запросы к bookings на время ожидания,
+-- блокировка ждётся не дольше lock_timeout; при превышении миграция падает и повторяется при следующем запуске.
+-- Экземпляры предыдущей версии на время миграции нужно остановить: согласованные ими после проверки V5.1 пересечения
+-- не дадут создать ограничение.
+SET LOCAL lock_timeout = '10s';
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_approved_period
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
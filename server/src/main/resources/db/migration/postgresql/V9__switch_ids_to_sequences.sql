@@ -0,0 +1,20 @@
+-- ID выдаёт Hibernate из последовательностей блоками по 50 (оптимизатор pooled-lo),
+-- поэтому значения по умолчанию у столбцов убираются: вставка в обход приложения пересеклась бы с блоком
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+
+-- Шаг последовательности равен allocationSize в сущностях, первое значение — следующее после существующих ID
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+CREATE SEQUENCE requests_seq INCREMENT BY 50;
+CREATE SEQUENCE items_seq INCREMENT BY 50;
+CREATE SEQUENCE bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE comments_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.BatchResult;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Массовые вставки должны уходить пакетами JDBC: ID выдаются из последовательностей блоками,
+ * поэтому число подготовленных запросов не растёт с числом строк.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.generate_statistics=true"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BulkInsertBatchingTest {
+
+    private static final int ROWS = 120;
+
+    private final TestEntityManager em;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    @MockBean
+    private UserService userService;
+
+    private BookingServiceImpl bookingService;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImpl(bookingRepository, userService, itemRepository);
+
+        owner = persistUser("ivan@email", "Ivan");
+        booker = persistUser("petr@email", "Petr");
+        em.flush();
+    }
+
+    @Test
+    void saveAllItems_insertsInJdbcBatches() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add(makeItem("item" + i));
+        }
+        Statistics statistics = getStatistics();
+
+        itemRepository.saveAll(items);
+        em.flush();
+
+        assertThat(itemRepository.count(), equalTo((long) ROWS));
+        // 3 блока ID и 3 пакета INSERT вместо 120 отдельных вставок
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(6L));
+    }
+
+    @Test
+    void createBookings_insertsInJdbcBatches() {
+        Item item = em.persist(makeItem("item"));
+        em.flush();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            bookingDtos.add(BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i).toString())
+                    .end(start.plusDays(i + 1).toString())
+                    .build());
+        }
+        when(userService.getUserById(booker.getId())).thenReturn(UserMapper.toUserDto(booker));
+        Statistics statistics = getStatistics();
+
+        List<BatchResult<BookingDto>> results = bookingService.createBookings(booker.getId(), bookingDtos);
+        em.flush();
+
+        assertThat(results, everyItem(hasProperty("success", equalTo(true))));
+        // Вещи и согласованные бронирования, 3 блока ID и 3 пакета INSERT
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(8L));
+    }
+
+    private Statistics getStatistics() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Item makeItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("description");
+        item.setIsAvailable(true);
+        item.setOwnerId(owner.getId());
+        return item;
+    }
+
+    private User persistUser(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        return em.persist(user);
+    }
+}
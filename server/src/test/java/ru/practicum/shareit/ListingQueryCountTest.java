@@ -0,0 +1,183 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Постраничные методы репозиториев должны выполнять ровно один запрос,
+ * без дополнительного count(*), который Spring Data делает для Page,
+ * а вывод бронирований — без отложенной загрузки вещи и автора для каждой строки.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.generate_statistics=true"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ListingQueryCountTest {
+
+    private final TestEntityManager em;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    @MockBean
+    private UserService userService;
+
+    private BookingServiceImpl bookingService;
+
+    private final Pageable firstOfMany = PageRequest.of(0, 1, Sort.by("id"));
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImpl(bookingRepository, userService, itemRepository);
+
+        owner = persistUser("ivan@email", "Ivan");
+        booker = persistUser("petr@email", "Petr");
+        for (int i = 0; i < 2; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description");
+            item.setIsAvailable(true);
+            item.setOwnerId(owner.getId());
+            em.persist(item);
+
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStartDate(LocalDateTime.now().plusDays(1));
+            booking.setEndDate(LocalDateTime.now().plusDays(2));
+            booking.setStatus(BookingStatus.WAITING);
+            em.persist(booking);
+
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setDescription("request" + i);
+            itemRequest.setRequestor(booker);
+            em.persist(itemRequest);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void findByBookerId_executesSingleQuery() {
+        assertSingleQuery(() -> bookingRepository.findByBookerId(booker.getId(), firstOfMany));
+    }
+
+    @Test
+    void findByBookerIdAndStatus_executesSingleQuery() {
+        assertSingleQuery(() -> bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.WAITING,
+                firstOfMany));
+    }
+
+    @Test
+    void findByItemOwnerId_executesSingleQuery() {
+        assertSingleQuery(() -> bookingRepository.findByItem_OwnerId(owner.getId(), firstOfMany));
+    }
+
+    @Test
+    void findByItemOwnerIdAndCurrent_executesSingleQuery() {
+        assertSingleQuery(() -> bookingRepository.findByItem_OwnerIdAndCurrent(owner.getId(),
+                LocalDateTime.now().plusDays(1).plusHours(1), firstOfMany));
+    }
+
+    @Test
+    void findItemsByOwnerId_executesSingleQuery() {
+        assertSingleQuery(() -> itemRepository.findByOwnerId(owner.getId(), firstOfMany));
+    }
+
+    @Test
+    void findAllItemRequestsByRequestorIdNot_executesSingleQuery() {
+        assertSingleQuery(() -> itemRequestRepository.findAllByRequestorIdNot(owner.getId(), firstOfMany));
+    }
+
+    @Test
+    void getAllBookings_mapsPageWithSingleQuery() {
+        for (BookingState state : List.of(BookingState.ALL, BookingState.FUTURE, BookingState.WAITING)) {
+            assertSingleQueryForPage(() -> bookingService.getAllBookings(booker.getId(), state, 0, 10));
+        }
+    }
+
+    @Test
+    void getAllBookingsByOwner_mapsPageWithSingleQuery() {
+        for (BookingState state : List.of(BookingState.ALL, BookingState.FUTURE, BookingState.WAITING)) {
+            assertSingleQueryForPage(() -> bookingService.getAllBookingsByOwner(owner.getId(), state, 0, 10));
+        }
+    }
+
+    @Test
+    void getAllBookingsAfter_mapsPageWithSingleQuery() {
+        assertSingleQueryForPage(() -> bookingService.getAllBookingsAfter(booker.getId(), BookingState.ALL, "", 10)
+                .getContent());
+        assertSingleQueryForPage(() -> bookingService.getAllBookingsByOwnerAfter(owner.getId(), BookingState.ALL, "", 10)
+                .getContent());
+    }
+
+    private void assertSingleQuery(Supplier<Slice<?>> query) {
+        Statistics statistics = getStatistics();
+
+        Slice<?> slice = query.get();
+
+        assertThat(slice.hasNext(), equalTo(true));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    private void assertSingleQueryForPage(Supplier<Collection<BookingDto>> query) {
+        em.clear();
+        Statistics statistics = getStatistics();
+
+        Collection<BookingDto> bookings = query.get();
+
+        assertThat(bookings, hasSize(2));
+        assertThat(bookings, everyItem(allOf(
+                hasProperty("item", hasProperty("name", notNullValue())),
+                hasProperty("booker", hasProperty("email", equalTo(booker.getEmail())))
+        )));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    private Statistics getStatistics() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User persistUser(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        return em.persist(user);
+    }
+}
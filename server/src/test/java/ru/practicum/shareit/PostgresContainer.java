@@ -0,0 +1,25 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL в Docker для тестов того, что на H2 не проверить: планы запросов и индексы, pg_trgm.
+ * Образ тот же, что в docker-compose. Контейнер один на все тесты и запускается при первом обращении;
+ * схему создают миграции Flyway из db/migration/postgresql.
+ * Тестовые классы помечаются {@code @Testcontainers(disabledWithoutDocker = true)}: без Docker они пропускаются.
+ */
+public final class PostgresContainer {
+    private static final PostgreSQLContainer<?> CONTAINER = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private PostgresContainer() {
+    }
+
+    public static void registerDataSource(DynamicPropertyRegistry registry) {
+        CONTAINER.start();
+        registry.add("spring.datasource.url", CONTAINER::getJdbcUrl);
+        registry.add("spring.datasource.username", CONTAINER::getUsername);
+        registry.add("spring.datasource.password", CONTAINER::getPassword);
+        registry.add("spring.datasource.driver-class-name", CONTAINER::getDriverClassName);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.params.provider.Arguments;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Запросы, которые репозитории действительно отправляют в базу, и их планы выполнения.
+ * Пока выполняется {@link #explain}, слушатель {@link QueryCapture} запоминает SELECT текущего потока вместе
+ * с параметрами, затем каждый повторяется под EXPLAIN с теми же параметрами. Поэтому проверяется SQL,
+ * который сгенерировали Hibernate и Spring Data, а не его копия.
+ */
+@TestComponent
+@Import(RepositoryQueryPlans.QueryCapture.class)
+@RequiredArgsConstructor
+public class RepositoryQueryPlans {
+    private static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    /**
+     * Методы репозиториев, которые сервисы вызывают на чтение по пользователю, вещи или запросу,
+     * со страницами и сортировкой как в сервисах.
+     */
+    public Stream<Arguments> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable bookingPage = PageRequest.of(0, 10, Sort.by("endDate").descending());
+        Pageable bookingCursorPage = PageRequest.of(0, 10, Sort.by("endDate", "id").descending());
+        Pageable itemPage = PageRequest.of(0, 10, Sort.by("id").ascending());
+        return Stream.of(
+                query("BookingRepository.findByBookerId",
+                        () -> bookingRepository.findByBookerId(1L, bookingPage)),
+                query("BookingRepository.findByBookerIdAndEndDateLessThanEqual",
+                        () -> bookingRepository.findByBookerIdAndEndDateLessThanEqual(1L, now, bookingPage)),
+                query("BookingRepository.findByBookerIdAndStartDateGreaterThanEqual",
+                        () -> bookingRepository.findByBookerIdAndStartDateGreaterThanEqual(1L, now, bookingPage)),
+                query("BookingRepository.findByBookerIdAndStatus",
+                        () -> bookingRepository.findByBookerIdAndStatus(1L, BookingStatus.WAITING, bookingPage)),
+                query("BookingRepository.findByBookerIdAndCurrent",
+                        () -> bookingRepository.findByBookerIdAndCurrent(1L, now, bookingPage)),
+                query("BookingRepository.findByBookerIdAfter",
+                        () -> bookingRepository.findByBookerIdAfter(1L, BookingState.PAST, now, null,
+                                bookingCursorPage)),
+                query("BookingRepository.findByItem_OwnerId",
+                        () -> bookingRepository.findByItem_OwnerId(1L, bookingPage)),
+                query("BookingRepository.findByItem_OwnerIdAndEndDateLessThanEqual",
+                        () -> bookingRepository.findByItem_OwnerIdAndEndDateLessThanEqual(1L, now, bookingPage)),
+                query("BookingRepository.findByItem_OwnerIdAndStartDateGreaterThanEqual",
+                        () -> bookingRepository.findByItem_OwnerIdAndStartDateGreaterThanEqual(1L, now, bookingPage)),
+                query("BookingRepository.findByItem_OwnerIdAndStatus",
+                        () -> bookingRepository.findByItem_OwnerIdAndStatus(1L, BookingStatus.WAITING, bookingPage)),
+                query("BookingRepository.findByItem_OwnerIdAndCurrent",
+                        () -> bookingRepository.findByItem_OwnerIdAndCurrent(1L, now, bookingPage)),
+                query("BookingRepository.findByItemOwnerIdAfter",
+                        () -> bookingRepository.findByItemOwnerIdAfter(1L, BookingState.ALL, now, null,
+                                bookingCursorPage)),
+                query("BookingRepository.findFirst1ByItemIdAndStartDateGreaterThanAndStatusOrderByStartDate",
+                        () -> bookingRepository.findFirst1ByItemIdAndStartDateGreaterThanAndStatusOrderByStartDate(
+                                1L, now, BookingStatus.APPROVED)),
+                query("BookingRepository.findFirst1ByItemIdAndStartDateLessThanEqualAndStatusOrderByStartDateDesc",
+                        () -> bookingRepository.findFirst1ByItemIdAndStartDateLessThanEqualAndStatusOrderByStartDateDesc(
+                                1L, now, BookingStatus.APPROVED)),
+                query("BookingRepository.findLastAndNextByItemIdIn",
+                        () -> bookingRepository.findLastAndNextByItemIdIn(List.of(1L, 2L), now,
+                                BookingStatus.APPROVED.name())),
+                query("BookingRepository.findByItemIdInAndStatusAndStartDateLessThanAndEndDateGreaterThan",
+                        () -> bookingRepository.findByItemIdInAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+                                List.of(1L, 2L), BookingStatus.APPROVED, now.plusDays(1), now)),
+                query("BookingRepository.findByItemIdAndBookerIdAndEndDateLessThanAndStatus",
+                        () -> bookingRepository.findByItemIdAndBookerIdAndEndDateLessThanAndStatus(1L, 1L, now,
+                                BookingStatus.APPROVED)),
+                query("BookingRepository.existsOverlapping",
+                        () -> bookingRepository.existsOverlapping(1L, now, now.plusDays(1), BookingStatus.APPROVED,
+                                1L)),
+                query("ItemRepository.findByOwnerId",
+                        () -> itemRepository.findByOwnerId(1L, itemPage)),
+                query("ItemRepository.findByOwnerIdAndIdGreaterThan",
+                        () -> itemRepository.findByOwnerIdAndIdGreaterThan(1L, 0L, itemPage)),
+                query("ItemRepository.findByRequestId",
+                        () -> itemRepository.findByRequestId(1L)),
+                query("ItemRepository.findByRequestIdIn",
+                        () -> itemRepository.findByRequestIdIn(List.of(1L, 2L))),
+                query("ItemRepository.findCardVersion",
+                        () -> itemRepository.findCardVersion(1L, now, BookingStatus.APPROVED.name())),
+                query("CommentRepository.findAllByItemIdOrderById",
+                        () -> commentRepository.findAllByItemIdOrderById(1L)),
+                query("CommentRepository.findAllByItemIdInOrderById",
+                        () -> commentRepository.findAllByItemIdInOrderById(List.of(1L, 2L))),
+                query("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDateDesc",
+                        () -> itemRequestRepository.findAllByRequestorIdOrderByCreatedDateDesc(1L)),
+                query("ItemRequestRepository.findVersionById",
+                        () -> itemRequestRepository.findVersionById(1L))
+        );
+    }
+
+    /**
+     * Выполняет запрос репозитория и возвращает планы всех SELECT, которые он отправил в базу.
+     * Планы строятся тем же {@link JdbcTemplate}, поэтому учитывают настройки текущей транзакции.
+     */
+    public List<String> explain(Runnable query) {
+        CAPTURED.set(new ArrayList<>());
+        List<CapturedQuery> captured;
+        try {
+            query.run();
+        } finally {
+            captured = CAPTURED.get();
+            CAPTURED.remove();
+        }
+        return captured.stream()
+                .map(this::explain)
+                .collect(Collectors.toList());
+    }
+
+    private String explain(CapturedQuery query) {
+        return jdbcTemplate.query("explain " + query.getSql(),
+                statement -> {
+                    for (ParameterSetOperation parameter : query.getParameters()) {
+                        try {
+                            parameter.getMethod().invoke(statement, parameter.getArgs());
+                        } catch (ReflectiveOperationException e) {
+                            throw new IllegalStateException("Не удалось передать параметр запроса " + query.getSql(), e);
+                        }
+                    }
+                },
+                resultSet -> {
+                    //на PostgreSQL план возвращается построчно
+                    StringJoiner plan = new StringJoiner("\n", query.getSql() + "\n", "");
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                });
+    }
+
+    private static Arguments query(String name, Runnable query) {
+        return Arguments.of(name, query);
+    }
+
+    //Слушатель datasource-proxy, как SqlStatementCounter. Отдельный бин без зависимостей: Sleuth собирает слушателей
+    //при создании DataSource, и слушатель, зависящий от JdbcTemplate, в него бы не попал
+    @TestComponent
+    static class QueryCapture implements QueryExecutionListener {
+        private static final Pattern SELECT = Pattern.compile("(?is)^\\s*select\\b.*");
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<CapturedQuery> captured = CAPTURED.get();
+            if (captured == null) {
+                return;
+            }
+
+            for (QueryInfo queryInfo : queryInfoList) {
+                if (SELECT.matcher(queryInfo.getQuery()).matches()) {
+                    List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                            ? List.of()
+                            : queryInfo.getParametersList().get(0);
+                    captured.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+                }
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CapturedQuery {
+        private final String sql;
+        private final List<ParameterSetOperation> parameters;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.metrics.SqlStatementMetricsFilter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на HTTP-запрос записывается с шаблоном пути эндпоинта,
+ * а гистограммы задержек публикуются в формате Prometheus.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class RequestMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSqlStatementsPerRequest() throws Exception {
+        // given
+        mockMvc.perform(post("/users")
+                        .contentType("application/json")
+                        .content("{\"name\": \"metrics\", \"email\": \"metrics@email\"}"))
+                .andExpect(status().isCreated());
+        DistributionSummary summaryBefore = findUsersListSummary();
+        long countBefore = summaryBefore != null ? summaryBefore.count() : 0;
+        double totalBefore = summaryBefore != null ? summaryBefore.totalAmount() : 0;
+
+        // when
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        // then
+        DistributionSummary summary = findUsersListSummary();
+        assertThat(summary, notNullValue());
+        assertThat(summary.count() - countBefore, equalTo(1L));
+        assertThat(summary.totalAmount() - totalBefore, equalTo(1.0));
+    }
+
+    @Test
+    void testPrometheusExposition() throws Exception {
+        // given
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        // when & then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("spring_data_repository_invocations_seconds_bucket{"),
+                        containsString("shareit_http_server_sql_statements_bucket{"),
+                        containsString("shareit_http_server_db_time_seconds_bucket{")
+                )));
+    }
+
+    private DistributionSummary findUsersListSummary() {
+        return meterRegistry.find(SqlStatementMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/users", "outcome", "SUCCESS")
+                .summary();
+    }
+}
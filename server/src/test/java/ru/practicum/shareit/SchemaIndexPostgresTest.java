@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Запросы репозиториев на PostgreSQL со схемой из миграций обслуживаются индексами.
+ * В таблицах десятки тысяч строк и собрана статистика: на пустых таблицах планировщик выбирает последовательное
+ * чтение при любых индексах, а с запрещённым Seq Scan читает целиком любой индекс. Без подходящего индекса
+ * в плане появится Seq Scan, как и на рабочей базе.
+ */
+@SpringBootTest
+@Import(RepositoryQueryPlans.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexPostgresTest {
+    //ID с миллиона: не пересекаются с записями других тестов в том же контейнере
+    private static final String[] DATA = {
+            "insert into users (id, name, email) " +
+                    "select 1000000 + g, 'user' || g, 'plans-user' || g || '@email' from generate_series(1, 2000) g",
+            "insert into requests (id, description, requestor_id, create_date) " +
+                    "select 1000000 + g, 'request' || g, 1000001 + g % 2000, now() - g * interval '1 minute' " +
+                    "from generate_series(1, 2000) g",
+            "insert into items (id, name, description, is_available, owner_id, request_id) " +
+                    "select 1000000 + g, 'item' || g, 'description' || g, true, 1000001 + g % 2000, " +
+                    "       case when g % 5 = 0 then 1000001 + g % 2000 end " +
+                    "from generate_series(1, 5000) g",
+            //у каждой вещи бронирования идут через день и не пересекаются
+            "insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                    "select 1000000 + g, now() + (g / 5000 * 2 - 10) * interval '1 day', " +
+                    "       now() + (g / 5000 * 2 - 9) * interval '1 day', 1000001 + g % 5000, 1000001 + g % 2000, " +
+                    "       (array['APPROVED', 'WAITING', 'REJECTED'])[1 + g % 3] " +
+                    "from generate_series(1, 50000) g",
+            "insert into comments (id, text, item_id, author_id, create_date) " +
+                    "select 1000000 + g, 'comment' || g, 1000001 + g % 5000, 1000001 + g % 2000, now() " +
+                    "from generate_series(1, 10000) g",
+            "select setval('users_seq', (select max(id) + 1 from users), false)",
+            "select setval('requests_seq', (select max(id) + 1 from requests), false)",
+            "select setval('items_seq', (select max(id) + 1 from items), false)",
+            "select setval('bookings_seq', (select max(id) + 1 from bookings), false)",
+            "select setval('comments_seq', (select max(id) + 1 from comments), false)",
+            "analyze"
+    };
+
+    @Autowired
+    private RepositoryQueryPlans queryPlans;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresContainer.registerDataSource(registry);
+    }
+
+    @BeforeAll
+    public void fillTables() {
+        for (String statement : DATA) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    Stream<Arguments> repositoryQueries() {
+        return queryPlans.queries();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryUsesIndex(String name, Runnable query) {
+        List<String> plans = queryPlans.explain(query);
+
+        assertThat(plans, not(empty()));
+        assertThat(plans, everyItem(not(containsString("Seq Scan"))));
+    }
+}
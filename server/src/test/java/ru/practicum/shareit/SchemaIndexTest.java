@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Запросы репозиториев на H2 не читают таблицы целиком. Планы PostgreSQL проверяет {@link SchemaIndexPostgresTest}.
+ */
+@SpringBootTest
+@Import(RepositoryQueryPlans.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexTest {
+    @Autowired
+    private RepositoryQueryPlans queryPlans;
+
+    Stream<Arguments> repositoryQueries() {
+        return queryPlans.queries();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryDoesNotScanTable(String name, Runnable query) {
+        List<String> plans = queryPlans.explain(query);
+
+        assertThat(plans, not(empty()));
+        assertThat(plans, everyItem(not(containsString("tableScan"))));
+    }
+}
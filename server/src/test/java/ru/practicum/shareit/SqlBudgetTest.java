@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.metrics.SqlStatementMetricsFilter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL на HTTP-запрос: число запросов в списочных эндпоинтах не растёт с размером страницы,
+ * а запрос сверх бюджета в тестовом режиме не выполняется, и HTTP-запрос завершается ошибкой.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "shareit.sql-budget.max-statements-by-uri[/users/{userId}]=0")
+class SqlBudgetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int PAGE_SIZE = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testGetItems_statementsDoNotDependOnPageSize() throws Exception {
+        // given
+        long ownerId = createUser("budget-items-owner@email");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            createItem(ownerId, "Вещь " + i, null);
+        }
+
+        // when
+        double singleItemStatements = measureStatements("/items", () -> mockMvc.perform(get("/items")
+                        .header(USER_HEADER, ownerId)
+                        .param("size", "1"))
+                .andExpect(status().isOk()));
+        double pageStatements = measureStatements("/items", () -> mockMvc.perform(get("/items")
+                        .header(USER_HEADER, ownerId)
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE_SIZE))));
+
+        // then
+        assertThat(pageStatements, equalTo(singleItemStatements));
+    }
+
+    @Test
+    void testGetAllItemRequests_statementsDoNotDependOnPageSize() throws Exception {
+        // given
+        long requestorId = createUser("budget-requestor@email");
+        long ownerId = createUser("budget-requests-owner@email");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long requestId = createItemRequest(requestorId, "Запрос " + i);
+            createItem(ownerId, "Ответ " + i, requestId);
+        }
+
+        // when
+        double singleRequestStatements = measureStatements("/requests/all", () -> mockMvc.perform(get("/requests/all")
+                        .header(USER_HEADER, ownerId)
+                        .param("size", "1"))
+                .andExpect(status().isOk()));
+        double pageStatements = measureStatements("/requests/all", () -> mockMvc.perform(get("/requests/all")
+                        .header(USER_HEADER, ownerId)
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE_SIZE))));
+
+        // then
+        assertThat(pageStatements, equalTo(singleRequestStatements));
+    }
+
+    @Test
+    void testRequestOverBudget_whenFailOnExceed() throws Exception {
+        // given
+        long userId = 100_000L;
+        double exceededBefore = countBudgetExceeded("/users/{userId}");
+
+        // when & then
+        //запрос пользователя не выполнен: без бюджета ответом был бы 404
+        mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.description", containsString("превысил бюджет SQL")));
+        assertThat(countBudgetExceeded("/users/{userId}") - exceededBefore, equalTo(1.0));
+    }
+
+    private double measureStatements(String uri, MockMvcCall call) throws Exception {
+        DistributionSummary before = findSummary(uri);
+        double totalBefore = before != null ? before.totalAmount() : 0;
+        long countBefore = before != null ? before.count() : 0;
+
+        call.perform();
+
+        DistributionSummary after = findSummary(uri);
+        assertThat(after, notNullValue());
+        assertThat(after.count() - countBefore, equalTo(1L));
+        return after.totalAmount() - totalBefore;
+    }
+
+    private DistributionSummary findSummary(String uri) {
+        return meterRegistry.find(SqlStatementMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", uri, "outcome", "SUCCESS")
+                .summary();
+    }
+
+    private double countBudgetExceeded(String uri) {
+        Counter counter = meterRegistry.find(SqlStatementMetricsFilter.BUDGET_EXCEEDED_METRIC)
+                .tags("method", "GET", "uri", uri)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private long createUser(String email) throws Exception {
+        return createAndGetId(post("/users")
+                .contentType("application/json")
+                .content("{\"name\": \"budget\", \"email\": \"" + email + "\"}"));
+    }
+
+    private long createItem(long ownerId, String name, Long requestId) throws Exception {
+        return createAndGetId(post("/items")
+                .header(USER_HEADER, ownerId)
+                .contentType("application/json")
+                .content("{\"name\": \"" + name + "\", \"description\": \"описание\", \"available\": true"
+                        + (requestId != null ? ", \"requestId\": " + requestId : "") + "}"));
+    }
+
+    private long createItemRequest(long requestorId, String description) throws Exception {
+        return createAndGetId(post("/requests")
+                .header(USER_HEADER, requestorId)
+                .contentType("application/json")
+                .content("{\"description\": \"" + description + "\"}"));
+    }
+
+    private long createAndGetId(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("id").asLong();
+    }
+
+    @FunctionalInterface
+    private interface MockMvcCall {
+        void perform() throws Exception;
+    }
+}
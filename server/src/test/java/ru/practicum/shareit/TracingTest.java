@@ -0,0 +1,95 @@
+package ru.practicum.shareit;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Спан запроса продолжает трассу из заголовка traceparent шлюза,
+ * вызовы сервиса и репозитория становятся его дочерними спанами, а SQL-запрос — дочерним спаном репозитория.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TracingTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String GATEWAY_SPAN_ID = "b7ad6b7169203331";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private InMemorySpanHandler spanHandler;
+
+    @BeforeEach
+    void setUp() {
+        spanHandler.spans.clear();
+    }
+
+    @Test
+    void testSpansJoinGatewayTrace() throws Exception {
+        // given
+        mockMvc.perform(post("/users")
+                        .contentType("application/json")
+                        .content("{\"name\": \"tracing\", \"email\": \"tracing@email\"}"))
+                .andExpect(status().isCreated());
+
+        // when
+        mockMvc.perform(get("/users")
+                        .header("traceparent", "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        // then
+        List<MutableSpan> traceSpans = spanHandler.spans.values().stream()
+                .filter(span -> TRACE_ID.equals(span.traceId()))
+                .collect(Collectors.toList());
+        Map<String, MutableSpan> spans = traceSpans.stream()
+                .filter(span -> span.tag("jdbc.query") == null)
+                .collect(Collectors.toMap(MutableSpan::name, span -> span));
+        assertThat(spans.keySet(), hasItems("GET /users", "UserServiceImpl.getUsers", "UserRepository.findAll"));
+
+        MutableSpan requestSpan = spans.get("GET /users");
+        MutableSpan serviceSpan = spans.get("UserServiceImpl.getUsers");
+        MutableSpan repositorySpan = spans.get("UserRepository.findAll");
+        assertThat(requestSpan.parentId(), equalTo(GATEWAY_SPAN_ID));
+        assertThat(serviceSpan.parentId(), equalTo(requestSpan.id()));
+        assertThat(repositorySpan.parentId(), equalTo(serviceSpan.id()));
+        assertThat(traceSpans.stream()
+                .anyMatch(span -> span.tag("jdbc.query") != null && repositorySpan.id().equals(span.parentId())), is(true));
+    }
+
+    @TestConfiguration
+    static class InMemorySpanHandlerConfig {
+        @Bean
+        InMemorySpanHandler inMemorySpanHandler() {
+            return new InMemorySpanHandler();
+        }
+    }
+
+    static class InMemorySpanHandler extends SpanHandler {
+        private final Map<String, MutableSpan> spans = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            spans.put(context.spanIdString(), span);
+            return true;
+        }
+    }
+}
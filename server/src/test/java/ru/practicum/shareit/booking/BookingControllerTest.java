@@ -7,16 +7,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.exception.ItemNotAvailableException;
+import ru.practicum.shareit.util.BatchResult;
+import ru.practicum.shareit.util.CacheInvalidation;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -160,6 +166,67 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(BookingStatus.APPROVED.name()));
     }
 
+    @Test
+    public void testApproveBookings_returnsStatusPerEntry() throws Exception {
+        // given
+        Long itemId = 1L;
+        Long userId = 2L;
+        BookingDto bookingDto = BookingDto.builder()
+                .id(3L)
+                .itemId(itemId)
+                .status(BookingStatus.APPROVED)
+                .build();
+        List<BookingApprovalDto> approvals = List.of(
+                BookingApprovalDto.builder().bookingId(3L).approved(true).build(),
+                BookingApprovalDto.builder().bookingId(4L).approved(true).build(),
+                BookingApprovalDto.builder().bookingId(5L).approved(true).build()
+        );
+
+        when(bookingService.approveBookings(userId, approvals)).thenReturn(List.of(
+                BatchResult.success(bookingDto),
+                BatchResult.failure(new BookingNotFoundException("error")),
+                BatchResult.failure(new BookingConflictException("conflict"))
+        ));
+
+        // when
+        mockMvc.perform(patch("/bookings/approve")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(approvals)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CacheInvalidation.HEADER, CacheInvalidation.item(itemId)))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].booking.status").value(BookingStatus.APPROVED.name()))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error.description").value("error"))
+                .andExpect(jsonPath("$[2].status").value(409))
+                .andExpect(jsonPath("$[2].error.error").value("Вещь уже забронирована"));
+    }
+
+    @Test
+    public void testCreateBookings_whenAllEntriesFailed() throws Exception {
+        // given
+        Long userId = 2L;
+        List<BookingDto> bookingDtos = List.of(BookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1).toString())
+                .end(LocalDateTime.now().plusDays(3).toString())
+                .build());
+
+        when(bookingService.createBookings(userId, bookingDtos))
+                .thenReturn(List.of(BatchResult.failure(new ItemNotAvailableException("error"))));
+
+        // when
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(bookingDtos)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CacheInvalidation.HEADER))
+                .andExpect(jsonPath("$[0].status").value(400))
+                .andExpect(jsonPath("$[0].booking").doesNotExist());
+    }
+
     @Test
     public void testGetAllBookings() throws Exception {
         // given
@@ -223,4 +290,35 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].start").value(startDate.toString()))
                 .andExpect(jsonPath("$.[0].end").value(endDate.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAllBookingsAfter() throws Exception {
+        // given
+        Long itemId = 1L;
+        Long userId = 2L;
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1).toString())
+                .end(LocalDateTime.now().plusDays(3).toString())
+                .status(BookingStatus.APPROVED)
+                .build();
+        BookingState state = BookingState.FUTURE;
+        String after = "";
+        Integer size = 1;
+
+        when(bookingService.getAllBookingsAfter(userId, state, after, size))
+                .thenReturn(new CursorPage<>(List.of(bookingDto), "next"));
+
+        // when
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("after", after)
+                        .param("size", size.toString())
+                        .param("state", state.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.[0].itemId").value(itemId));
+
+        verify(bookingService, never()).getAllBookings(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest
+class BookingConcurrencyTest {
+    private static final int ITEM_COUNT = 8;
+    private static final int BOOKINGS_PER_ITEM = 8;
+    private static final int THREAD_COUNT = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void testApproveBooking_concurrentApprovalsOfOverlappingBookings() throws Exception {
+        // given
+        User owner = saveUser("concurrency-owner@email");
+        User booker = saveUser("concurrency-booker@email");
+        LocalDateTime starDate = LocalDateTime.now().plusDays(1);
+
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description");
+            item.setIsAvailable(true);
+            item.setOwnerId(owner.getId());
+            itemIds.add(itemRepository.save(item).getId());
+
+            //все бронирования одной вещи пересекаются друг с другом
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                Booking booking = new Booking();
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStartDate(starDate.plusHours(j));
+                booking.setEndDate(starDate.plusDays(1).plusHours(j));
+                booking.setStatus(BookingStatus.WAITING);
+                bookingIds.add(bookingRepository.save(booking).getId());
+            }
+        }
+        Collections.shuffle(bookingIds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Map<Long, AtomicInteger> approvedCountByItemId = new ConcurrentHashMap<>();
+        AtomicInteger conflictCount = new AtomicInteger();
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                try {
+                    Long itemId = bookingService.approveBooking(owner.getId(), bookingId, true).getItem().getId();
+                    approvedCountByItemId.computeIfAbsent(itemId, key -> new AtomicInteger()).incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflictCount.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        for (Long itemId : itemIds) {
+            assertThat(approvedCountByItemId.get(itemId).get(), equalTo(1));
+        }
+        assertThat(conflictCount.get(), equalTo(ITEM_COUNT * (BOOKINGS_PER_ITEM - 1)));
+
+        long approvedInDb = bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count();
+        assertThat(approvedInDb, equalTo((long) ITEM_COUNT));
+    }
+
+    @Test
+    void testApproveBooking_concurrentApproveAndRejectOfSameBooking() throws Exception {
+        // given
+        User owner = saveUser("concurrency-owner@email");
+        User booker = saveUser("concurrency-booker@email");
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setIsAvailable(true);
+        item.setOwnerId(owner.getId());
+        itemRepository.save(item);
+
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStartDate(LocalDateTime.now().plusDays(1));
+        booking.setEndDate(LocalDateTime.now().plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        Long bookingId = bookingRepository.save(booking).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<BookingStatus> appliedStatuses = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejectedCount = new AtomicInteger();
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            boolean approved = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                try {
+                    appliedStatuses.add(bookingService.approveBooking(owner.getId(), bookingId, approved).getStatus());
+                } catch (IllegalArgumentException e) {
+                    rejectedCount.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(appliedStatuses.size(), equalTo(1));
+        assertThat(rejectedCount.get(), equalTo(THREAD_COUNT - 1));
+
+        Booking persistedBooking = bookingRepository.findById(bookingId).orElseThrow();
+        assertThat(persistedBooking.getStatus(), equalTo(appliedStatuses.get(0)));
+        assertThat(persistedBooking.getVersion(), equalTo(1L));
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName("name");
+        user.setEmail(email);
+        User savedUser = userRepository.save(user);
+        userIds.add(savedUser.getId());
+        return savedUser;
+    }
+}
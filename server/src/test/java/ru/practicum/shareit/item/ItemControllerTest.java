@@ -18,6 +18,7 @@ import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -88,6 +89,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("name"));
     }
 
+    @Test
+    void testUpdateItem_invalidatesGatewayCache() throws Exception {
+        // Given
+        Long userId = 1L;
+        Long itemId = 1L;
+        ItemDto itemToUpdate = ItemDto.builder()
+                .name("name")
+                .build();
+        when(itemService.patchItem(userId, itemId, itemToUpdate)).thenReturn(itemToUpdate);
+
+        // when
+        mockMvc.perform(patch("/items/" + itemId)
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(itemToUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache-Invalidate", "items, items/" + itemId));
+    }
+
     @Test
     void testUpdate_whenWrongOwner() throws Exception {
         // Given
@@ -103,7 +123,8 @@ class ItemControllerTest {
                         .contentType("application/json")
                         .header("X-Sharer-User-Id", userId)
                         .content(objectMapper.writeValueAsString(itemToUpdate)))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("X-Cache-Invalidate"));
     }
 
     @Test
@@ -145,6 +166,29 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("name"));
     }
 
+    @Test
+    public void testFindById_whenEtagMatches() throws Exception {
+        // Given
+        Long userId = 1L;
+        Long itemId = 1L;
+        ItemExtendedDto item = ItemExtendedDto.builder()
+                .name("name")
+                .build();
+        String etag = "\"item-1\"";
+        when(itemService.getItemById(userId, itemId)).thenReturn(item);
+        when(itemService.getItemEtag(userId, itemId)).thenReturn(etag);
+
+        // when
+        mockMvc.perform(get("/items/" + itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        // then
+        verify(itemService, never()).getItemById(userId, itemId);
+    }
+
     @Test
     public void testFindByIdNotFound() throws Exception {
         Long userId = 1L;
@@ -175,6 +219,7 @@ class ItemControllerTest {
                         .param("size", size.toString())
                         .param("text", "name"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=5, private"))
                 .andExpect(jsonPath("$.[0].name").value("name"));
 
     }
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.PostgresContainer;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+/**
+ * Поиск вещей на PostgreSQL: ранжирование по similarity() из pg_trgm и текст короче триграммы.
+ * На H2 этот путь не выполняется.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchPostgresTest {
+
+    private final TestEntityManager em;
+    private final ItemRepository itemRepository;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresContainer.registerDataSource(registry);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("search-owner@email");
+        em.persist(owner);
+
+        //ID растут в обратном порядке схожести, чтобы сортировка по ID не совпала с ранжированием
+        makeItem(owner, "Bit set", "Fits any drill or screwdriver", true);
+        makeItem(owner, "Hammer drill with case", "Heavy", true);
+        makeItem(owner, "Cordless drill", "Two batteries", true);
+        makeItem(owner, "Drill", "Simple", true);
+        makeItem(owner, "Drill press", "Broken", false);
+        em.flush();
+    }
+
+    @Test
+    void testSearch_ordersBySimilarity() {
+        // when
+        List<Item> items = itemRepository.search("drill", PageRequest.of(0, 10));
+
+        // then
+        assertThat(names(items), contains("Drill", "Cordless drill", "Hammer drill with case", "Bit set"));
+    }
+
+    @Test
+    void testSearch_whenPageRequested_returnsNextByRank() {
+        // when
+        List<Item> items = itemRepository.search("drill", PageRequest.of(1, 2));
+
+        // then
+        assertThat(names(items), contains("Hammer drill with case", "Bit set"));
+    }
+
+    @Test
+    void testSearch_whenShortText_matchesInsideWord() {
+        // when
+        //"il" короче триграммы: индексы не используются, но подстрока в середине слова находится
+        List<Item> items = itemRepository.search("il", PageRequest.of(0, 10));
+
+        // then
+        assertThat(names(items), containsInAnyOrder("Drill", "Cordless drill", "Hammer drill with case", "Bit set"));
+    }
+
+    private void makeItem(User owner, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setIsAvailable(available);
+        item.setOwnerId(owner.getId());
+        em.persist(item);
+    }
+
+    private static List<String> names(List<Item> items) {
+        return items.stream()
+                .map(Item::getName)
+                .collect(Collectors.toList());
+    }
+}
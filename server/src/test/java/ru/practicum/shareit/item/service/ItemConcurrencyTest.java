@@ -0,0 +1,225 @@
+package ru.practicum.shareit.item.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+@SpringBootTest
+class ItemConcurrencyTest {
+    private static final int THREAD_COUNT = 16;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RetryCounter retryCounter;
+    @Autowired
+    private ItemReadHook itemReadHook;
+
+    private Long ownerId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("item-concurrency-owner@email");
+        ownerId = userRepository.save(owner).getId();
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setIsAvailable(true);
+        item.setOwnerId(ownerId);
+        itemId = itemRepository.save(item).getId();
+
+        retryCounter.reset();
+        itemReadHook.runOnceAfterRead(null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteById(ownerId);
+    }
+
+    @Test
+    void testPatchItem_concurrentPatchesOfSameItem() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicInteger patchedCount = new AtomicInteger();
+        AtomicInteger conflictCount = new AtomicInteger();
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            ItemDto patch = i % 2 == 0
+                    ? ItemDto.builder().name("name" + i).build()
+                    : ItemDto.builder().description("description" + i).build();
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                try {
+                    itemService.patchItem(ownerId, itemId, patch);
+                    patchedCount.incrementAndGet();
+                } catch (ConcurrencyFailureException e) {
+                    conflictCount.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        //конфликты были, и их разрешали повторы: без повтора каждый конфликт сразу дошёл бы до вызывающего
+        assertThat(retryCounter.getFailedAttempts(), greaterThan(0));
+        assertThat(retryCounter.getExhausted(), equalTo(conflictCount.get()));
+        assertThat(patchedCount.get() + conflictCount.get(), equalTo(THREAD_COUNT));
+        //каждое успешное изменение применено поверх предыдущего: ни одно не потеряно
+        Item persistedItem = itemRepository.findById(itemId).orElseThrow();
+        assertThat(persistedItem.getVersion(), equalTo((long) patchedCount.get()));
+    }
+
+    @Test
+    void testPatchItem_whenItemChangedAfterRead_retriesWithFreshItem() throws Exception {
+        // given
+        //второй пишущий фиксирует изменение описания между чтением вещи первым и его записью
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        itemReadHook.runOnceAfterRead(() -> executor.submit(() ->
+                itemService.patchItem(ownerId, itemId, ItemDto.builder().description("new description").build()))
+                .get(30, TimeUnit.SECONDS));
+
+        // when
+        ItemDto patchedItem = itemService.patchItem(ownerId, itemId, ItemDto.builder().name("new name").build());
+        executor.shutdown();
+
+        // then
+        //первая попытка упала на устаревшей версии, вторая перечитала вещь в новой транзакции
+        assertThat(retryCounter.getFailedAttempts(), equalTo(1));
+        assertThat(retryCounter.getExhausted(), equalTo(0));
+        assertThat(patchedItem.getName(), equalTo("new name"));
+        assertThat(patchedItem.getDescription(), equalTo("new description"));
+        Item persistedItem = itemRepository.findById(itemId).orElseThrow();
+        assertThat(persistedItem.getName(), equalTo("new name"));
+        assertThat(persistedItem.getDescription(), equalTo("new description"));
+        assertThat(persistedItem.getVersion(), equalTo(2L));
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RetryCounter retryCounter() {
+            return new RetryCounter();
+        }
+
+        @Bean
+        ItemReadHook itemReadHook() {
+            return new ItemReadHook();
+        }
+    }
+
+    //Считает неудачные попытки и вызовы, для которых попытки кончились
+    static class RetryCounter extends RetryListenerSupport {
+        private final AtomicInteger failedAttempts = new AtomicInteger();
+        private final AtomicInteger exhausted = new AtomicInteger();
+
+        @Override
+        public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                     Throwable throwable) {
+            failedAttempts.incrementAndGet();
+        }
+
+        @Override
+        public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                                   Throwable throwable) {
+            if (throwable != null) {
+                exhausted.incrementAndGet();
+            }
+        }
+
+        int getFailedAttempts() {
+            return failedAttempts.get();
+        }
+
+        int getExhausted() {
+            return exhausted.get();
+        }
+
+        void reset() {
+            failedAttempts.set(0);
+            exhausted.set(0);
+        }
+    }
+
+    //Слушатель datasource-proxy: выполняет действие один раз сразу после первого чтения из items
+    static class ItemReadHook implements QueryExecutionListener {
+        private static final Pattern ITEM_SELECT = Pattern.compile("(?is)^\\s*select\\b.*\\bfrom\\s+(\\w+\\.)?items\\b.*");
+
+        private final AtomicReference<ThrowingRunnable> action = new AtomicReference<>();
+
+        void runOnceAfterRead(ThrowingRunnable runnable) {
+            action.set(runnable);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (action.get() == null || !ITEM_SELECT.matcher(queryInfoList.get(0).getQuery()).matches()) {
+                return;
+            }
+            ThrowingRunnable runnable = action.getAndSet(null);
+            if (runnable != null) {
+                try {
+                    runnable.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -16,6 +16,7 @@ import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
@@ -27,12 +28,14 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
 
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.CoreMatchers.allOf;
@@ -72,7 +75,6 @@ class ItemServiceImplTest {
         em.persist(entity);
         em.flush();
         Long userId = entity.getId();
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when
         ItemDto targetItemDto = itemService.createItem(userId, sourceItemDto);
@@ -89,7 +91,7 @@ class ItemServiceImplTest {
         assertThat(persistedItem.getDescription(), equalTo(sourceItemDto.getDescription()));
         assertThat(persistedItem.getIsAvailable(), equalTo(sourceItemDto.getAvailable()));
 
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
 
@@ -98,14 +100,14 @@ class ItemServiceImplTest {
         // given
         Long userId = 1L;
         ItemDto sourceItemDto = makeItemDto("item1", "description", true);
-        when(userService.getUserById(userId)).thenThrow(new UserNotFoundException("Пользователь с ID = " + userId + " не найден."));
+        doThrow(new UserNotFoundException("Пользователь с ID = " + userId + " не найден.")).when(userService).checkUserExists(userId);
 
         //when & then
         assertThatThrownBy(() -> itemService.createItem(userId, sourceItemDto))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("Пользователь с ID = " + userId + " не найден.");
 
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -126,7 +128,6 @@ class ItemServiceImplTest {
         em.flush();
         Long itemId = itemEntity.getId();
 
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when
         ItemDto targetItemDto = itemService.patchItem(userId, itemId, updatedItemDto);
@@ -143,7 +144,7 @@ class ItemServiceImplTest {
         assertThat(persistedItem.getDescription(), equalTo(updatedItemDto.getDescription()));
         assertThat(persistedItem.getIsAvailable(), equalTo(updatedItemDto.getAvailable()));
 
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
 
@@ -153,14 +154,14 @@ class ItemServiceImplTest {
         Long userId = 1L;
         Long itemId = 1L;
         ItemDto updatedItemDto = makeItemDto("item2", "description2", false);
-        when(userService.getUserById(userId)).thenThrow(new UserNotFoundException("Пользователь с ID = " + userId + " не найден."));
+        doThrow(new UserNotFoundException("Пользователь с ID = " + userId + " не найден.")).when(userService).checkUserExists(userId);
 
         // when & then
         assertThatThrownBy(() -> itemService.patchItem(userId, itemId, updatedItemDto))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("Пользователь с ID = " + userId + " не найден.");
 
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -170,14 +171,13 @@ class ItemServiceImplTest {
         Long itemId = 1L;
         UserDto sourceUserDto = makeUserDto("ivan@email", "Ivan");
         ItemDto updatedItemDto = makeItemDto("item2", "description2", false);
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when & then
         assertThatThrownBy(() -> itemService.patchItem(userId, itemId, updatedItemDto))
                 .isInstanceOf(ItemNotFoundException.class)
                 .hasMessage("Вещь с ID = " + itemId + " не найдена.");
 
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -198,14 +198,13 @@ class ItemServiceImplTest {
         em.flush();
         Long itemId = itemEntity.getId();
 
-        when(userService.getUserById(userId + 1L)).thenReturn(sourceUserDto);
 
         // when & then
         assertThatThrownBy(() -> itemService.patchItem(userId + 1L, itemId, updatedItemDto))
                 .isInstanceOf(WrongItemOwnerException.class)
                 .hasMessage("У вещи с ID = " + itemId + " другой владелец.");
 
-        verify(userService).getUserById(userId + 1L);
+        verify(userService).checkUserExists(userId + 1L);
     }
 
 
@@ -246,6 +245,78 @@ class ItemServiceImplTest {
         }
     }
 
+    @Test
+    public void testGetItems_withLastAndNextBookingsAndComments() {
+        // given
+        User ownerEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(ownerEntity);
+        User bookerEntity = UserMapper.toUser(makeUserDto("petr@email", "Petr"));
+        em.persist(bookerEntity);
+
+        Item firstItem = ItemMapper.toItem(makeItemDto("item1", "description", true));
+        firstItem.setOwnerId(ownerEntity.getId());
+        em.persist(firstItem);
+        Item secondItem = ItemMapper.toItem(makeItemDto("item2", "description2", true));
+        secondItem.setOwnerId(ownerEntity.getId());
+        em.persist(secondItem);
+
+        LocalDateTime now = LocalDateTime.now();
+        makeBooking(firstItem, bookerEntity, now.minusDays(10), now.minusDays(8), BookingStatus.APPROVED);
+        Booking lastBooking = makeBooking(firstItem, bookerEntity, now.minusDays(5), now.minusDays(3), BookingStatus.APPROVED);
+        Booking nextBooking = makeBooking(firstItem, bookerEntity, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        makeBooking(firstItem, bookerEntity, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        makeBooking(firstItem, bookerEntity, now.plusHours(1), now.plusHours(2), BookingStatus.REJECTED);
+        makeBooking(secondItem, bookerEntity, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+
+        Comment comment = CommentMapper.toComment(CommentDto.builder().text("Great item!").build(), firstItem, bookerEntity);
+        em.persist(comment);
+        em.flush();
+        em.clear();
+
+        // when
+        List<ItemExtendedDto> targetItemDtos = List.copyOf(itemService.getItems(ownerEntity.getId(), 0, 10));
+
+        // then
+        assertThat(targetItemDtos, hasSize(2));
+        ItemExtendedDto firstDto = targetItemDtos.get(0);
+        assertThat(firstDto.getId(), equalTo(firstItem.getId()));
+        assertThat(firstDto.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(firstDto.getLastBooking().getBookerId(), equalTo(bookerEntity.getId()));
+        assertThat(firstDto.getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(firstDto.getComments(), hasSize(1));
+        assertThat(firstDto.getComments(), hasItem(hasProperty("authorName", equalTo(bookerEntity.getName()))));
+
+        ItemExtendedDto secondDto = targetItemDtos.get(1);
+        assertThat(secondDto.getId(), equalTo(secondItem.getId()));
+        assertThat(secondDto.getLastBooking(), nullValue());
+        assertThat(secondDto.getNextBooking(), nullValue());
+        assertThat(secondDto.getComments(), hasSize(0));
+    }
+
+    @Test
+    public void testGetItemsAfter() {
+        // given
+        User userEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(userEntity);
+        for (String name : List.of("item1", "item2", "item3")) {
+            Item entity = ItemMapper.toItem(makeItemDto(name, "description", true));
+            entity.setOwnerId(userEntity.getId());
+            em.persist(entity);
+        }
+        em.flush();
+
+        // when
+        CursorPage<ItemExtendedDto> firstPage = itemService.getItemsAfter(userEntity.getId(), "", 2);
+        CursorPage<ItemExtendedDto> secondPage = itemService.getItemsAfter(userEntity.getId(), firstPage.getNextCursor(), 2);
+
+        // then
+        assertThat(firstPage.getContent(), contains(hasProperty("name", equalTo("item1")),
+                hasProperty("name", equalTo("item2"))));
+        assertThat(firstPage.getNextCursor(), notNullValue());
+        assertThat(secondPage.getContent(), contains(hasProperty("name", equalTo("item3"))));
+        assertThat(secondPage.getNextCursor(), nullValue());
+    }
+
     @Test
     public void testGetItemById() {
         // given
@@ -273,6 +344,79 @@ class ItemServiceImplTest {
         assertThat(targetItemDto.getAvailable(), equalTo(sourceItemDto.getAvailable()));
     }
 
+    @Test
+    public void testGetItemEtag_whenCardNotChanged() {
+        // given
+        User ownerEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(ownerEntity);
+        Item itemEntity = ItemMapper.toItem(makeItemDto("item1", "description", true));
+        itemEntity.setOwnerId(ownerEntity.getId());
+        em.persist(itemEntity);
+        em.flush();
+
+        // when
+        String firstEtag = itemService.getItemEtag(ownerEntity.getId(), itemEntity.getId());
+        String secondEtag = itemService.getItemEtag(ownerEntity.getId(), itemEntity.getId());
+
+        // then
+        assertThat(firstEtag, notNullValue());
+        assertThat(secondEtag, equalTo(firstEtag));
+    }
+
+    @Test
+    public void testGetItemEtag_whenCardChanged() {
+        // given
+        User ownerEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(ownerEntity);
+        User bookerEntity = UserMapper.toUser(makeUserDto("petr@email", "Petr"));
+        em.persist(bookerEntity);
+        Item itemEntity = ItemMapper.toItem(makeItemDto("item1", "description", true));
+        itemEntity.setOwnerId(ownerEntity.getId());
+        em.persist(itemEntity);
+        LocalDateTime now = LocalDateTime.now();
+        makeBooking(itemEntity, bookerEntity, now.minusDays(5), now.minusDays(3), BookingStatus.APPROVED);
+        em.flush();
+        Long ownerId = ownerEntity.getId();
+        Long itemId = itemEntity.getId();
+
+        String initialEtag = itemService.getItemEtag(ownerId, itemId);
+
+        // when
+        em.persist(CommentMapper.toComment(CommentDto.builder().text("Great item!").build(), itemEntity, bookerEntity));
+        em.flush();
+        String etagAfterComment = itemService.getItemEtag(ownerId, itemId);
+
+        bookerEntity.setName("Petr Petrov");
+        em.flush();
+        String etagAfterAuthorRename = itemService.getItemEtag(ownerId, itemId);
+
+        makeBooking(itemEntity, bookerEntity, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        em.flush();
+        String etagAfterBooking = itemService.getItemEtag(ownerId, itemId);
+
+        itemEntity.setName("item2");
+        em.flush();
+        String etagAfterPatch = itemService.getItemEtag(ownerId, itemId);
+
+        // then
+        assertThat(List.of(initialEtag, etagAfterComment, etagAfterAuthorRename, etagAfterBooking, etagAfterPatch),
+                everyItem(notNullValue()));
+        assertThat(Set.of(initialEtag, etagAfterComment, etagAfterAuthorRename, etagAfterBooking, etagAfterPatch),
+                hasSize(5));
+    }
+
+    @Test
+    public void testGetItemEtag_whenItemIdNotFound() {
+        // given
+        Long userId = 1L;
+        Long itemId = 1L;
+
+        // when & then
+        assertThatThrownBy(() -> itemService.getItemEtag(userId, itemId))
+                .isInstanceOf(ItemNotFoundException.class)
+                .hasMessage("Вещь с ID = " + itemId + " не найдена.");
+    }
+
 
     @Test
     public void testSearchItem() {
@@ -311,6 +455,33 @@ class ItemServiceImplTest {
         }
     }
 
+    @Test
+    public void testSearchItem_whenShortText_matchesInsideWord() {
+        // given
+        UserDto sourceUserDto = makeUserDto("ivan@email", "Ivan");
+        User userEntity = UserMapper.toUser(sourceUserDto);
+        em.persist(userEntity);
+        em.flush();
+        Long userId = userEntity.getId();
+
+        for (ItemDto itemDto : List.of(makeItemDto("item1", "description", true),
+                makeItemDto("mitem2", "description2", true))) {
+            Item entity = ItemMapper.toItem(itemDto);
+            entity.setOwnerId(userId);
+            em.persist(entity);
+        }
+        em.flush();
+
+        // when
+        Collection<ItemDto> result = itemService.searchItem("it", 0, 10);
+
+        // then
+        assertThat(result, contains(
+                hasProperty("name", equalTo("item1")),
+                hasProperty("name", equalTo("mitem2"))
+        ));
+    }
+
     @Test
     public void testSearchItem_whenEmptyText() {
         // given
@@ -417,6 +588,17 @@ class ItemServiceImplTest {
         verify(userService).getUserById(userId);
     }
 
+    private Booking makeBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStartDate(start);
+        booking.setEndDate(end);
+        booking.setStatus(status);
+        em.persist(booking);
+        return booking;
+    }
+
     private ItemDto makeItemDto(String name, String description, boolean available) {
         return ItemDto.builder()
                 .name(name)
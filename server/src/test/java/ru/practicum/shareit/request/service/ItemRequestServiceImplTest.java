@@ -8,7 +8,10 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -19,11 +22,14 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
 
 import javax.transaction.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.CoreMatchers.allOf;
@@ -31,6 +37,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -113,7 +120,6 @@ class ItemRequestServiceImplTest {
         Long itemRequestId = itemRequestEntity.getId();
 
         sourceUserDto.setId(userId);
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when
         ItemRequestDto targetItemRequestDto = itemRequestService.getItemRequestById(userId, itemRequestId);
@@ -121,7 +127,7 @@ class ItemRequestServiceImplTest {
         // then
         assertThat(targetItemRequestDto.getId(), notNullValue());
         assertThat(targetItemRequestDto.getDescription(), equalTo(sourceItemRequestDto.getDescription()));
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
 
@@ -138,13 +144,64 @@ class ItemRequestServiceImplTest {
         Long userId = userEntity.getId();
 
         sourceUserDto.setId(userId);
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when & then
         assertThatThrownBy(() -> itemRequestService.getItemRequestById(userId, itemRequestId))
                 .isInstanceOf(ItemRequestNotFoundException.class)
                 .hasMessage("Запрос на  вещь с ID = " + itemRequestId + " не найден.");
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
+    }
+
+    @Test
+    public void testGetItemRequestEtag_whenItemsChanged() {
+        // given
+        User requestorEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(requestorEntity);
+        User ownerEntity = UserMapper.toUser(makeUserDto("petr@email", "Petr"));
+        em.persist(ownerEntity);
+        ItemRequest itemRequestEntity = ItemRequestMapper.toItemRequest(
+                ItemRequestDto.builder().description("description").build(), requestorEntity);
+        em.persist(itemRequestEntity);
+        em.flush();
+        Long userId = requestorEntity.getId();
+        Long itemRequestId = itemRequestEntity.getId();
+
+        String initialEtag = itemRequestService.getItemRequestEtag(userId, itemRequestId);
+
+        // when
+        String unchangedEtag = itemRequestService.getItemRequestEtag(userId, itemRequestId);
+
+        Item itemEntity = new Item();
+        itemEntity.setName("item1");
+        itemEntity.setDescription("description");
+        itemEntity.setIsAvailable(true);
+        itemEntity.setOwnerId(ownerEntity.getId());
+        itemEntity.setRequestId(itemRequestId);
+        em.persist(itemEntity);
+        em.flush();
+        String etagAfterAnswer = itemRequestService.getItemRequestEtag(userId, itemRequestId);
+
+        itemEntity.setIsAvailable(false);
+        em.flush();
+        String etagAfterItemPatch = itemRequestService.getItemRequestEtag(userId, itemRequestId);
+
+        // then
+        assertThat(unchangedEtag, equalTo(initialEtag));
+        assertThat(Set.of(initialEtag, etagAfterAnswer, etagAfterItemPatch), hasSize(3));
+        verify(userService, times(4)).checkUserExists(userId);
+    }
+
+    @Test
+    public void testGetItemRequestEtag_whenItemRequestNotFound() {
+        // given
+        Long userId = 1L;
+        Long itemRequestId = 2L;
+
+        // when & then
+        assertThatThrownBy(() -> itemRequestService.getItemRequestEtag(userId, itemRequestId))
+                .isInstanceOf(ItemRequestNotFoundException.class)
+                .hasMessage("Запрос на  вещь с ID = " + itemRequestId + " не найден.");
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -167,7 +224,6 @@ class ItemRequestServiceImplTest {
         }
         em.flush();
 
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when
         Collection<ItemRequestDto> targetItemRequestDtos = itemRequestService.getItemRequests(userId);
@@ -180,7 +236,7 @@ class ItemRequestServiceImplTest {
                     hasProperty("description", equalTo(sourceItemRequestDto.getDescription()))
             )));
         }
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -189,14 +245,13 @@ class ItemRequestServiceImplTest {
         Long userId = 1L;
         UserDto sourceUserDto = makeUserDto("ivan@email", "Ivan");
 
-        when(userService.getUserById(userId)).thenReturn(sourceUserDto);
 
         // when
         Collection<ItemRequestDto> itemRequests = itemRequestService.getItemRequests(1L);
 
         // then
         assertThat(itemRequests.size(), equalTo(0));
-        verify(userService).getUserById(userId);
+        verify(userService).checkUserExists(userId);
     }
 
     @Test
@@ -221,7 +276,6 @@ class ItemRequestServiceImplTest {
         }
         em.flush();
 
-        when(userService.getUserById(userId + 1L)).thenReturn(sourceUserDto);
 
         // when
         Collection<ItemRequestDto> targetItemRequestDtos = itemRequestService.getAllItemRequests(userId + 1L, from, size);
@@ -235,7 +289,84 @@ class ItemRequestServiceImplTest {
             )));
         }
 
-        verify(userService).getUserById(userId + 1L);
+        verify(userService).checkUserExists(userId + 1L);
+    }
+
+    @Test
+    public void testGetAllItemRequests_withItems() {
+        // given
+        User requestorEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(requestorEntity);
+        User ownerEntity = UserMapper.toUser(makeUserDto("petr@email", "Petr"));
+        em.persist(ownerEntity);
+
+        ItemRequest firstRequest = ItemRequestMapper.toItemRequest(
+                ItemRequestDto.builder().description("description1").build(), requestorEntity);
+        em.persist(firstRequest);
+        ItemRequest secondRequest = ItemRequestMapper.toItemRequest(
+                ItemRequestDto.builder().description("description2").build(), requestorEntity);
+        em.persist(secondRequest);
+
+        for (String name : List.of("item1", "item2")) {
+            Item item = ItemMapper.toItem(ItemDto.builder()
+                    .name(name)
+                    .description("description")
+                    .available(true)
+                    .requestId(firstRequest.getId())
+                    .build());
+            item.setOwnerId(ownerEntity.getId());
+            em.persist(item);
+        }
+        em.flush();
+
+
+        // when
+        Collection<ItemRequestDto> targetItemRequestDtos = itemRequestService.getAllItemRequests(ownerEntity.getId(), 0, 10);
+
+        // then
+        assertThat(targetItemRequestDtos, hasSize(2));
+        assertThat(targetItemRequestDtos, hasItem(allOf(
+                hasProperty("id", equalTo(firstRequest.getId())),
+                hasProperty("items", hasSize(2))
+        )));
+        assertThat(targetItemRequestDtos, hasItem(allOf(
+                hasProperty("id", equalTo(secondRequest.getId())),
+                hasProperty("items", empty())
+        )));
+    }
+
+    @Test
+    public void testGetAllItemRequestsAfter() {
+        // given
+        User requestorEntity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(requestorEntity);
+        User userEntity = UserMapper.toUser(makeUserDto("petr@email", "Petr"));
+        em.persist(userEntity);
+
+        LocalDateTime created = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            ItemRequest entity = ItemRequestMapper.toItemRequest(
+                    ItemRequestDto.builder().description("description" + i).build(), requestorEntity);
+            entity.setCreatedDate(created.plusMinutes(i));
+            em.persist(entity);
+        }
+        em.flush();
+        em.clear();
+
+
+        // when
+        CursorPage<ItemRequestDto> firstPage = itemRequestService.getAllItemRequestsAfter(userEntity.getId(), "", 2);
+        CursorPage<ItemRequestDto> secondPage = itemRequestService.getAllItemRequestsAfter(userEntity.getId(),
+                firstPage.getNextCursor(), 2);
+
+        // then
+        assertThat(firstPage.getContent(), contains(hasProperty("description", equalTo("description2")),
+                hasProperty("description", equalTo("description1"))));
+        assertThat(firstPage.getNextCursor(), notNullValue());
+        assertThat(secondPage.getContent(), contains(allOf(
+                hasProperty("description", equalTo("description0")),
+                hasProperty("items", empty()))));
+        assertThat(secondPage.getNextCursor(), nullValue());
     }
 
     private UserDto makeUserDto(String email, String name) {
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void testGetUserById_loadsUserOnce() {
+        // given
+        Long userId = userService.createUser(makeUserDto("cache-get@email", "Ivan")).getId();
+
+        // when
+        userService.getUserById(userId);
+        UserDto cachedUserDto = userService.getUserById(userId);
+
+        // then
+        assertThat(cachedUserDto.getEmail(), equalTo("cache-get@email"));
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    void testCheckUserExists_whenUserIsCached() {
+        // given
+        Long userId = userService.createUser(makeUserDto("cache-check@email", "Ivan")).getId();
+        userService.getUserById(userId);
+
+        // when
+        userService.checkUserExists(userId);
+
+        // then
+        verify(userRepository, never()).existsById(userId);
+    }
+
+    @Test
+    void testPatchUser_evictsCachedUser() {
+        // given
+        Long userId = userService.createUser(makeUserDto("cache-patch@email", "Ivan")).getId();
+        userService.getUserById(userId);
+
+        // when
+        userService.patchUser(userId, UserDto.builder().name("Petr").build());
+
+        // then
+        assertThat(userService.getUserById(userId).getName(), equalTo("Petr"));
+    }
+
+    @Test
+    void testRemoveUser_evictsCachedUser() {
+        // given
+        Long userId = userService.createUser(makeUserDto("cache-remove@email", "Ivan")).getId();
+        userService.getUserById(userId);
+
+        // when
+        userService.removeUser(userId);
+
+        // then
+        assertThatThrownBy(() -> userService.getUserById(userId))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    private UserDto makeUserDto(String email, String name) {
+        return UserDto.builder()
+                .email(email)
+                .name(name)
+                .build();
+    }
+}
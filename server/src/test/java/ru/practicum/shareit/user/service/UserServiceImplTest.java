@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -37,7 +38,7 @@ class UserServiceImplTest {
 
     @BeforeEach
     public void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new NoOpCacheManager());
     }
 
     @Test
@@ -110,6 +111,30 @@ class UserServiceImplTest {
                 .hasMessage("Пользователь с ID = " + userId + " не найден.");
     }
 
+    @Test
+    public void testCheckUserExists() {
+        // given
+        User entity = UserMapper.toUser(makeUserDto("ivan@email", "Ivan"));
+        em.persist(entity);
+        em.flush();
+
+        // when
+        userService.checkUserExists(entity.getId());
+
+        // then
+        assertThat(em.find(User.class, entity.getId()), notNullValue());
+    }
+
+    @Test
+    public void testCheckUserExists_whenIdNotFound() {
+        // given
+        Long userId = 3L;
+
+        // when & then
+        assertThatThrownBy(() -> userService.checkUserExists(userId))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessage("Пользователь с ID = " + userId + " не найден.");
+    }
 
     @Test
     void testCreateUser() {
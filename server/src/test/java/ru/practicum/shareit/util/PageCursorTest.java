@@ -0,0 +1,73 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PageCursorTest {
+
+    @Test
+    void encodeAndDecode_withDate() {
+        // given
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2023, 5, 1, 12, 30, 15, 123456000), 42L);
+
+        // when
+        PageCursor result = PageCursor.decodeDated(cursor.encode());
+
+        // then
+        assertThat(result, equalTo(cursor));
+    }
+
+    @Test
+    void encodeAndDecode_withIdOnly() {
+        // given
+        PageCursor cursor = PageCursor.of(7L);
+
+        // when
+        PageCursor result = PageCursor.decodeId(cursor.encode());
+
+        // then
+        assertThat(result.getId(), equalTo(7L));
+        assertThat(result.getDate(), nullValue());
+    }
+
+    @Test
+    void decode_whenBlank() {
+        assertThat(PageCursor.decodeId(""), nullValue());
+        assertThat(PageCursor.decodeDated(""), nullValue());
+    }
+
+    @Test
+    void decode_whenMalformed() {
+        assertThatThrownBy(() -> PageCursor.decodeId("not a cursor"))
+                .isInstanceOf(WrongPageParameterException.class);
+        assertThatThrownBy(() -> PageCursor.decodeDated("not a cursor"))
+                .isInstanceOf(WrongPageParameterException.class);
+    }
+
+    @Test
+    void decodeDated_whenIdOnlyCursor() {
+        // given
+        //позиция из GET /items, переданная в /requests/all или /bookings
+        String token = PageCursor.of(7L).encode();
+
+        // when & then
+        assertThatThrownBy(() -> PageCursor.decodeDated(token))
+                .isInstanceOf(WrongPageParameterException.class);
+    }
+
+    @Test
+    void decodeId_whenDatedCursor() {
+        // given
+        String token = PageCursor.of(LocalDateTime.of(2023, 5, 1, 12, 30), 42L).encode();
+
+        // when & then
+        assertThatThrownBy(() -> PageCursor.decodeId(token))
+                .isInstanceOf(WrongPageParameterException.class);
+    }
+}